@@ -5,12 +5,13 @@ import android.os.Bundle;
 import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
 import broken.shotgun.throwthemoon.ThrowTheMoonGame;
+import broken.shotgun.throwthemoon.audio.AudioThread;
 
 public class AndroidLauncher extends AndroidApplication {
 	@Override
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new ThrowTheMoonGame(BuildConfig.DEBUG), config);
+		initialize(new ThrowTheMoonGame(BuildConfig.DEBUG, new AudioThread()), config);
 	}
 }
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.actors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
+/**
+ * Player movement for the two ways it is driven: keyboard velocity and steering towards a touch target.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+    private static final float DELTA = 1f / 60f;
+    private static final float FAR_AWAY = 1e9f;
+
+    private Player player;
+
+    @Setup(Level.Trial)
+    public void createPlayer() {
+        player = new Player(AnimationLibrary.headless(), SoundPlayer.SILENT);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPlayer() {
+        player.setPosition(0f, 0f);
+        player.reset();
+    }
+
+    @Benchmark
+    public float keyboardMovement() {
+        player.velocity.set(Player.KEYBOARD_SPEED, Player.KEYBOARD_SPEED);
+        player.updateMovement(DELTA);
+        return player.getX();
+    }
+
+    @Benchmark
+    public float targetMovement() {
+        player.velocity.set(0, 0);
+        player.getMoveTarget().set(FAR_AWAY, FAR_AWAY);
+        player.updateMovement(DELTA);
+        return player.getX();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.models;
+
+import com.badlogic.gdx.utils.Bits;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall lookup and trigger state checks on synthetic levels with walls every 1440 units, to show how the
+ * checks scale past the handful of walls in chapter 1.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+    private static final int WALL_SPACING = 1440;
+    private static final float WALK_STEP = 7f;
+
+    @Param({ "4", "64", "1024" })
+    public int wallCount;
+
+    private Level level;
+    private Bits triggered;
+    private Bits destroyed;
+    private float x;
+
+    @Setup
+    public void createLevel() {
+        int[] wallX = new int[wallCount];
+        int[] wallSpawnStart = new int[wallCount + 1];
+        short[] spawnEnemyId = new short[wallCount];
+        byte[] spawnLocation = new byte[wallCount];
+        for(int wall = 0; wall < wallCount; wall++) {
+            wallX[wall] = (wall + 1) * WALL_SPACING;
+            wallSpawnStart[wall + 1] = wall + 1;
+        }
+        level = new Level(1, wallX, wallSpawnStart, spawnEnemyId, spawnLocation);
+        triggered = new Bits(wallCount);
+        destroyed = new Bits(wallCount);
+
+        for(int wall = 0; wall < wallCount; wall += 2) {
+            triggered.set(wall);
+        }
+    }
+
+    private float nextX() {
+        x += WALK_STEP;
+        if(x > (wallCount + 1) * WALL_SPACING) x = 0f;
+        return x;
+    }
+
+    @Benchmark
+    public int findWall() {
+        return level.findWall(nextX());
+    }
+
+    @Benchmark
+    public boolean triggerCheck() {
+        int wall = level.findWall(nextX());
+        return wall >= 0 && !(triggered.get(wall) || destroyed.get(wall));
+    }
+}
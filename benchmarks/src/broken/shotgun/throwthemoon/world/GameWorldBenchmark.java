@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.world;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import broken.shotgun.throwthemoon.actors.Enemy;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
+/**
+ * Collision cost for a given number of enemies spread over the level, as scene2d actors or as Ashley
+ * entities. Enemies are kept clear of the player so no hit lands and collisions leave the world as they
+ * found it; {@link GameWorldStepBenchmark} covers the whole step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GameWorldBenchmark {
+    static final long SEED = 42L;
+    static final String LEVEL_FILENAME = "levels/chapter1.lvl";
+    private static final float LEVEL_WIDTH = 7200f;
+    private static final float LEVEL_HEIGHT = 1080f;
+    private static final float PLAYER_CLEARANCE = 400f;
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int enemyCount;
+
+    @Param({ "false", "true" })
+    public boolean entities;
+
+    private GameWorld world;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = createWorld(entities);
+    }
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        populate(world, enemyCount, entities);
+    }
+
+    @Benchmark
+    public void handleCollisions() {
+        world.handleCollisions();
+    }
+
+    static GameWorld createWorld(boolean entities) {
+        GameWorld world = new GameWorld(broken.shotgun.throwthemoon.models.Level.load(new FileHandle(LEVEL_FILENAME)),
+                SEED, AnimationLibrary.headless(), SoundPlayer.SILENT);
+        world.setEntityEnemies(entities);
+        return world;
+    }
+
+    /**
+     * Resets the world and places the same enemies at the same spots every time. Actor enemies come from
+     * the world's own pool, so the next reset hands them back to it.
+     */
+    static void populate(GameWorld world, int enemyCount, boolean entities) {
+        world.reset();
+
+        Rectangle playerArea = world.getPlayer().getCollisionArea();
+        Rectangle keepOut = new Rectangle(playerArea.x - PLAYER_CLEARANCE, playerArea.y - PLAYER_CLEARANCE,
+                playerArea.width + PLAYER_CLEARANCE * 2, playerArea.height + PLAYER_CLEARANCE * 2);
+
+        Random random = new Random(SEED);
+        for(int i = 0; i < enemyCount; i++) {
+            float x, y;
+            do {
+                x = random.nextFloat() * LEVEL_WIDTH;
+                y = random.nextFloat() * LEVEL_HEIGHT;
+            } while(keepOut.contains(x, y));
+
+            if(entities) {
+                world.getEnemyEntities().spawn(x, y);
+                continue;
+            }
+            Enemy enemy = world.getEnemyPool().obtain();
+            enemy.setPosition(x, y);
+            enemy.getBrain().setTarget(world.getPlayer(), 0f);
+            world.getAiScheduler().add(enemy.getBrain());
+            world.addActor(enemy);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.world;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
+/**
+ * Spawn wall costs: spawning a wall's enemies from the pools and handing them back, and the per frame
+ * trigger checks made while the player walks the level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpawnWallBenchmark {
+    private static final float LEVEL_WIDTH = 7200f;
+    private static final float WALK_STEP = 7f;
+    private static final long SEED = 42L;
+    private static final String LEVEL_FILENAME = "levels/chapter1.lvl";
+
+    private GameWorld world;
+    private float playerX;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = new GameWorld(broken.shotgun.throwthemoon.models.Level.load(new FileHandle(LEVEL_FILENAME)), SEED,
+                AnimationLibrary.headless(), SoundPlayer.SILENT);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLevel() {
+        world.reset();
+        playerX = 0f;
+    }
+
+    @Benchmark
+    public void spawnAndRecycleWall() {
+        world.spawnEnemies(1);
+        world.clearAllEnemies();
+        world.freeRemovedActors();
+    }
+
+    @Benchmark
+    public void triggerChecks(Blackhole blackhole) {
+        playerX += WALK_STEP;
+        if(playerX > LEVEL_WIDTH) playerX = 0f;
+        blackhole.consume(world.triggerSpawnWall(playerX));
+        blackhole.consume(world.spawnWallActive());
+    }
+}
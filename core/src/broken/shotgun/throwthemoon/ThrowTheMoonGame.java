@@ -1,18 +1,53 @@
 package broken.shotgun.throwthemoon;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
 
+import broken.shotgun.throwthemoon.assets.AssetService;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.audio.AudioDispatcher;
+import broken.shotgun.throwthemoon.audio.AudioQueue;
+import broken.shotgun.throwthemoon.audio.MusicCrossfader;
+import broken.shotgun.throwthemoon.audio.SoundMixer;
+import broken.shotgun.throwthemoon.debug.ResourceTracker;
 import broken.shotgun.throwthemoon.screens.GameScreen;
+import broken.shotgun.throwthemoon.screens.LoadingScreen;
+import broken.shotgun.throwthemoon.screens.ScreenManager;
+import broken.shotgun.throwthemoon.screens.StageClearScreen;
 
 public class ThrowTheMoonGame extends Game {
 	private static boolean DEBUG;
+	private static final int PREFETCH_BUDGET_MILLIS = 2;
+	private static final float CROSSFADE_DURATION = 3f;
+
+	private AssetService assets;
+	private ScreenManager screens;
+	private ResourceTracker resources;
+	private final AudioDispatcher audioDispatcher;
+	private AudioQueue audioQueue;
+	private final MusicCrossfader crossfader;
+	private boolean stageClearPrefetching;
+	/** holds the stage clear assets until there is a stage clear screen to hand them to */
+	private final Object stageClearAssets = new Object();
 
 	public ThrowTheMoonGame() {
-		DEBUG = false;
+		this(false);
 	}
 
 	public ThrowTheMoonGame(boolean debug) {
+		this(debug, null);
+	}
+
+	/**
+	 * @param audioDispatcher drains sound commands off the render thread, or null to drain them at the end
+	 * of each frame
+	 */
+	public ThrowTheMoonGame(boolean debug, AudioDispatcher audioDispatcher) {
 		DEBUG = debug;
+		this.audioDispatcher = audioDispatcher;
+		this.crossfader = new MusicCrossfader();
 	}
 
 	public static boolean isDebug() {
@@ -21,6 +56,120 @@ public class ThrowTheMoonGame extends Game {
 
 	@Override
 	public void create () {
-		setScreen(new GameScreen(this));
+		assets = new AssetService();
+		resources = new ResourceTracker(assets.getManager());
+		screens = new ScreenManager(this, assets, resources);
+		// stage clear is cheap and comes back every loop, a game screen is rebuilt for every play
+		screens.setPolicy(StageClearScreen.class, ScreenManager.Policy.CACHE);
+		screens.setPolicy(GameScreen.class, ScreenManager.Policy.DISPOSE);
+		audioQueue = new AudioQueue(AudioQueue.DEFAULT_CAPACITY, SoundMixer.DEFAULT_MAX_VOICES);
+		if(audioDispatcher != null) audioDispatcher.start(audioQueue);
+		showGameScreen();
+	}
+
+	@Override
+	public void render () {
+		super.render();
+		screens.update();
+		if(stageClearPrefetching) updateStageClearPrefetch();
+		crossfader.update(Gdx.graphics.getDeltaTime());
+		if(audioDispatcher != null) audioDispatcher.signal();
+		else audioQueue.drain();
+	}
+
+	public void showGameScreen() {
+		LoadingScreen loading = new LoadingScreen(assets.getManager(), resources) {
+			@Override
+			protected void onLoaded() {
+				GameScreen screen = new GameScreen(ThrowTheMoonGame.this, assets.getManager());
+				assets.transfer(this, screen);
+				screens.showAtEndOfFrame(screen);
+			}
+		};
+		assets.acquire(loading, Assets.GAME);
+		screens.showAtEndOfFrame(loading);
+	}
+
+	/**
+	 * Starts loading the stage clear screen's assets a few milliseconds per frame while the game screen
+	 * keeps running, and crossfades into its music once they are in.
+	 */
+	public void prefetchStageClearScreen() {
+		acquireStageClearAssets();
+		stageClearPrefetching = true;
+	}
+
+	private void updateStageClearPrefetch() {
+		AssetManager manager = assets.getManager();
+		if(!manager.update(PREFETCH_BUDGET_MILLIS)) return;
+
+		stageClearPrefetching = false;
+		Music stageClearMusic = manager.get(Assets.STAGE_CLEAR_MUSIC);
+		stageClearMusic.setLooping(true);
+		crossfader.crossfade(manager.get(Assets.GAME_MUSIC), stageClearMusic, CROSSFADE_DURATION);
+	}
+
+	/**
+	 * Switches at the end of this frame if the assets were prefetched, or through a loading screen if not.
+	 */
+	public void showStageClearScreen() {
+		acquireStageClearAssets();
+		if(!stageClearPrefetching && assets.isLoaded(Assets.STAGE_CLEAR)) {
+			crossfader.finish();
+			screens.showAtEndOfFrame(stageClearScreen());
+			return;
+		}
+
+		stageClearPrefetching = false;
+		assets.getManager().get(Assets.GAME_MUSIC).stop();
+		screens.showAtEndOfFrame(new LoadingScreen(assets.getManager(), resources) {
+			@Override
+			protected void onLoaded() {
+				crossfader.finish();
+				screens.showAtEndOfFrame(stageClearScreen());
+			}
+		});
+	}
+
+	private StageClearScreen stageClearScreen() {
+		StageClearScreen screen = screens.getCached(StageClearScreen.class);
+		if(screen != null) return screen;
+
+		screen = new StageClearScreen(this, assets.getManager());
+		assets.transfer(stageClearAssets, screen);
+		return screen;
+	}
+
+	/*
+	 * A cached stage clear screen still holds its assets, so they are only acquired the first time. Until
+	 * the screen is built they are held by a placeholder owner.
+	 */
+	private void acquireStageClearAssets() {
+		if(screens.getCached(StageClearScreen.class) != null || assets.isAcquired(stageClearAssets)) return;
+		assets.acquire(stageClearAssets, Assets.STAGE_CLEAR);
+		// the only way out of stage clear is a replay, so keep the game's assets referenced meanwhile
+		assets.acquire(stageClearAssets, Assets.GAME);
+	}
+
+	public AudioQueue getAudioQueue() {
+		return audioQueue;
+	}
+
+	public ResourceTracker getResources() {
+		return resources;
+	}
+
+	public ScreenManager getScreens() {
+		return screens;
+	}
+
+	@Override
+	public void dispose () {
+		super.dispose();
+		screens.dispose();
+		crossfader.finish();
+		if(audioDispatcher != null) audioDispatcher.stop();
+		else audioQueue.drain();
+		assets.dispose();
 	}
 }
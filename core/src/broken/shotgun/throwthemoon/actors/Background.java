@@ -23,54 +23,220 @@
  */
 package broken.shotgun.throwthemoon.actors;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
-import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.badlogic.gdx.scenes.scene2d.utils.TiledDrawable;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
-public class Background extends Actor {
-    private static final String TEXTURE_FILENAME = "bg_tiles.png";
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+
+/**
+ * Animated tiled background spanning the whole level.
+ * <p>
+ * The tile geometry of a window of columns a little wider than the view is uploaded into a
+ * {@link SpriteCache}, one cache per animation frame with tiles stored column by column. Each draw only
+ * submits the columns under the camera and animates by picking the cache of the current frame; the
+ * window is rebuilt when the camera leaves it, so neither the draw cost nor the cache's vertex memory
+ * grows with the level length.
+ * <p>
+ * A sprite cache bakes colors into its vertices when tiles are added, so the actor color and parent alpha
+ * are applied at draw time as a tint uniform instead, without rebuilding the cache while fading.
+ */
+public class Background extends Actor implements Disposable {
     private static final int FRAME_WIDTH = 256;
     private static final int FRAME_HEIGHT = 256;
+    /** columns built on each side of the visible ones, so scrolling only rebuilds every few columns */
+    private static final int WINDOW_MARGIN = 2;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+            "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "uniform mat4 u_projTrans;\n" +
+            "uniform vec4 u_tint;\n" +
+            "varying vec4 v_color;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "void main() {\n" +
+            "    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + " * u_tint;\n" +
+            "    v_color.a = v_color.a * (255.0 / 254.0);\n" +
+            "    v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "}\n";
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n" +
+            "precision mediump float;\n" +
+            "#endif\n" +
+            "varying vec4 v_color;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "uniform sampler2D u_texture;\n" +
+            "void main() {\n" +
+            "    gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n" +
+            "}\n";
 
-    private final Texture texture;
     private final Animation animation;
-    private final TiledDrawable background;
     private float stateTime = 0f;
 
-    public Background(AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.finishLoading();
+    private SpriteCache cache;
+    private ShaderProgram shader;
+    private final Color tint = new Color();
+    private int capacity;
+    private int[] frameCacheIds;
+    private int columns;
+    private int rows;
+    private TextureRegion[] croppedColumns;
+    private TextureRegion[] croppedRows;
+    private TextureRegion[] croppedCorners;
+    private int windowStart;
+    private int windowColumns;
+    private boolean dirty = true;
+    private float cachedX;
+    private float cachedY;
 
-        texture = manager.get(TEXTURE_FILENAME);
-        
-        TextureRegion[] frames = TextureRegion.split(texture, FRAME_WIDTH, FRAME_HEIGHT)[0];
-        animation = new Animation(0.1f, frames[0], frames[1], frames[2]);
-        animation.setPlayMode(PlayMode.LOOP);
+    public Background(final AnimationLibrary animations) {
+        animation = animations.get(AnimationLibrary.SHEET_BACKGROUND, AnimationLibrary.CLIP_IDLE);
         
         setWidth(FRAME_WIDTH);
         setHeight(FRAME_HEIGHT);
-        
-        background = new TiledDrawable(animation.getKeyFrame(0f));
+    }
+
+    @Override
+    protected void sizeChanged() {
+        super.sizeChanged();
+        dirty = true;
     }
 
     @Override
     public void act(float delta) {
         super.act(delta);
-        background.setRegion(animation.getKeyFrame(stateTime));
         stateTime += delta;
     }
 
+    /**
+     * Draws the tiles under the camera with the cache's own shader, tinted by the actor color. This must be
+     * called outside any batch's begin/end; the stage draws the background as its own pass before its
+     * sprite batch rather than from the actor draw, which would have to end and restart the batch.
+     */
+    public void drawCache(Camera camera, float parentAlpha) {
+        if (!isVisible()) return;
+        if (dirty || cachedX != getX() || cachedY != getY()) layout();
+
+        float zoom = camera instanceof OrthographicCamera ? ((OrthographicCamera) camera).zoom : 1f;
+        float viewLeft = camera.position.x - (camera.viewportWidth * zoom / 2f);
+        float viewRight = camera.position.x + (camera.viewportWidth * zoom / 2f);
+        if (viewRight < getX() || viewLeft > getX() + getWidth()) return;
+
+        int firstColumn = MathUtils.clamp(MathUtils.floor((viewLeft - getX()) / FRAME_WIDTH), 0, columns - 1);
+        int lastColumn = MathUtils.clamp(MathUtils.floor((viewRight - getX()) / FRAME_WIDTH), 0, columns - 1);
+        if (firstColumn < windowStart || lastColumn >= windowStart + windowColumns) buildCache(firstColumn, lastColumn);
+        int frame = animation.getKeyFrameIndex(stateTime);
+
+        tint.set(getColor());
+        tint.a *= parentAlpha;
+        if (tint.a <= 0f) return;
+
+        boolean blendWasEnabled = Gdx.gl.glIsEnabled(GL20.GL_BLEND);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        shader.setUniformf("u_tint", tint);
+        cache.draw(frameCacheIds[frame], (firstColumn - windowStart) * rows, (lastColumn - firstColumn + 1) * rows);
+        cache.end();
+        if (!blendWasEnabled) Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /*
+     * Lays the tiles out the same way TiledDrawable does: full tiles from the bottom left corner,
+     * with the right column and top row cropped to fit the actor size.
+     */
+    private void layout() {
+        columns = MathUtils.ceil(getWidth() / FRAME_WIDTH);
+        rows = MathUtils.ceil(getHeight() / FRAME_HEIGHT);
+
+        TextureRegion[] frames = animation.getKeyFrames();
+        croppedColumns = new TextureRegion[frames.length];
+        croppedRows = new TextureRegion[frames.length];
+        croppedCorners = new TextureRegion[frames.length];
+        for (int frame = 0; frame < frames.length; ++frame) {
+            TextureRegion region = frames[frame];
+            croppedColumns[frame] = cropped(region, getWidth() - (columns - 1) * FRAME_WIDTH, FRAME_HEIGHT);
+            croppedRows[frame] = cropped(region, FRAME_WIDTH, getHeight() - (rows - 1) * FRAME_HEIGHT);
+            croppedCorners[frame] = cropped(region, croppedColumns[frame].getRegionWidth(), croppedRows[frame].getRegionHeight());
+        }
+
+        // forces the next draw to build a window
+        windowStart = 0;
+        windowColumns = 0;
+        cachedX = getX();
+        cachedY = getY();
+        dirty = false;
+    }
+
+    /*
+     * Builds the window around the visible columns with a margin on both sides. The cache is only
+     * reallocated if the view got wider than any window so far.
+     */
+    private void buildCache(int firstColumn, int lastColumn) {
+        windowStart = Math.max(0, firstColumn - WINDOW_MARGIN);
+        windowColumns = Math.min(columns - 1, lastColumn + WINDOW_MARGIN) - windowStart + 1;
+
+        TextureRegion[] frames = animation.getKeyFrames();
+        int size = windowColumns * rows * frames.length;
+        if (cache != null && capacity >= size) {
+            cache.clear();
+        }
+        else {
+            if (cache != null) cache.dispose();
+            cache = new SpriteCache(size, false);
+            cache.setShader(shader());
+            capacity = size;
+        }
+
+        if (frameCacheIds == null || frameCacheIds.length != frames.length) frameCacheIds = new int[frames.length];
+        for (int frame = 0; frame < frames.length; ++frame) {
+            cache.beginCache();
+            for (int column = windowStart; column < windowStart + windowColumns; ++column) {
+                boolean lastColumnOfLevel = column == columns - 1;
+                for (int row = 0; row < rows; ++row) {
+                    boolean lastRow = row == rows - 1;
+                    TextureRegion tile = lastColumnOfLevel ? (lastRow ? croppedCorners[frame] : croppedColumns[frame])
+                            : (lastRow ? croppedRows[frame] : frames[frame]);
+                    cache.add(tile, getX() + column * FRAME_WIDTH, getY() + row * FRAME_HEIGHT);
+                }
+            }
+            frameCacheIds[frame] = cache.endCache();
+        }
+    }
+
+    private ShaderProgram shader() {
+        if (shader == null) {
+            shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+            if (!shader.isCompiled()) throw new GdxRuntimeException("Error compiling background shader: " + shader.getLog());
+        }
+        return shader;
+    }
+
+    private static TextureRegion cropped(TextureRegion region, float width, float height) {
+        int regionWidth = (int) width;
+        int regionHeight = (int) height;
+        if (regionWidth == region.getRegionWidth() && regionHeight == region.getRegionHeight()) return region;
+        return new TextureRegion(region, 0, region.getRegionHeight() - regionHeight, regionWidth, regionHeight);
+    }
+
     @Override
-    public void draw(Batch batch, float parentAlpha) {
-        super.draw(batch, parentAlpha);
-        background.draw(batch, getX(), getY(), getWidth(), getHeight());
+    public void dispose() {
+        if (cache != null) cache.dispose();
+        cache = null;
+        if (shader != null) shader.dispose();
+        shader = null;
     }
 }
@@ -23,13 +23,7 @@
  */
 package broken.shotgun.throwthemoon.actors;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -39,56 +33,64 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Pool;
+
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
 
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.color;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.forever;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.sequence;
 
-public class Boss extends Actor {
-    private static final String TEXTURE_FILENAME = "boss.png";
-    private static final String SFX_HIT_FILENAME = "sfx/enemy_hit.wav";
+public class Boss extends Actor implements Pool.Poolable {
+    private static final int MAX_HEALTH = 50;
     private static final int FRAME_WIDTH = 512;
     private static final int FRAME_HEIGHT = 512;
 
-    private final Texture texture;
-    private final TextureRegion[] regions;
-
     private final Animation idle;
     private TextureRegion currentFrame;
     private float stateTime = 0.0f;
     
-    private final Sound hitSfx;
+    private final SoundPlayer sounds;
 
     private final Rectangle collisionArea;
+    private final Rectangle arena;
 
     private int health;
     private boolean raging;
     private Color color;
     private boolean flipX;
 
-    public Boss(final AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.load(SFX_HIT_FILENAME, Sound.class);
-        manager.finishLoading();
-
-        texture = manager.get(TEXTURE_FILENAME);
-        regions = TextureRegion.split(texture, FRAME_WIDTH, FRAME_HEIGHT)[0];
-        idle = new Animation(0.1f, regions[0], regions[1], regions[2]);
-        idle.setPlayMode(Animation.PlayMode.LOOP);
+    public Boss(final AnimationLibrary animations, final SoundPlayer sounds) {
+        idle = animations.get(AnimationLibrary.SHEET_BOSS, AnimationLibrary.CLIP_IDLE);
         
-        hitSfx = manager.get(SFX_HIT_FILENAME);
+        this.sounds = sounds;
 
         currentFrame = idle.getKeyFrame(0.0f);
 
-        setWidth(currentFrame.getRegionWidth());
-        setHeight(currentFrame.getRegionHeight());
+        setWidth(FRAME_WIDTH);
+        setHeight(FRAME_HEIGHT);
         setOrigin(getWidth() / 2, getHeight() / 2);
 
         collisionArea = new Rectangle(getX(), getY() + 80, (int) getWidth(), (int) getHeight() - 170);
+        arena = new Rectangle();
 
-        health = 50;
+        health = MAX_HEALTH;
+        raging = false;
+        color = Color.WHITE;
+        setColor(color);
+        flipX = false;
+    }
+
+    @Override
+    public void reset() {
+        clearActions();
+        setPosition(0, 0);
+        stateTime = 0.0f;
+        currentFrame = idle.getKeyFrame(0.0f);
+        collisionArea.setPosition(getX(), getY() + 80);
+        health = MAX_HEALTH;
         raging = false;
         color = Color.WHITE;
         setColor(color);
@@ -132,16 +134,15 @@ public class Boss extends Actor {
         return collisionArea;
     }
 
-    public void startBattle() {
-        Vector2 pointA = new Vector2(getStage().getViewport().getScreenWidth() * 0.7f, getStage().getViewport().getScreenHeight() / 2f);
-        Vector2 pointB = new Vector2(getStage().getViewport().getScreenWidth() * 0.05f, getStage().getViewport().getScreenHeight() / 2f);
-        Vector2 pointC = new Vector2(getStage().getViewport().getScreenWidth() * 0.05f, getStage().getViewport().getScreenHeight() * 0.95f);
-        Vector2 pointD = new Vector2(getStage().getViewport().getScreenWidth() * 0.7f, getStage().getViewport().getScreenHeight() * 0.95f);
-        
-        getStage().screenToStageCoordinates(pointA);
-        getStage().screenToStageCoordinates(pointB);
-        getStage().screenToStageCoordinates(pointC);
-        getStage().screenToStageCoordinates(pointD);
+    /**
+     * Starts the attack pattern inside the given area of the world, normally the view when the boss arrives.
+     */
+    public void startBattle(Rectangle area) {
+        arena.set(area);
+        Vector2 pointA = arenaPoint(0.7f, 0.5f);
+        Vector2 pointB = arenaPoint(0.05f, 0.5f);
+        Vector2 pointC = arenaPoint(0.05f, 0.05f);
+        Vector2 pointD = arenaPoint(0.7f, 0.05f);
 
         addAction(
             forever(
@@ -171,7 +172,7 @@ public class Boss extends Actor {
     public void takeDamage(int direction) {
         health--;
 
-        hitSfx.play();
+        sounds.play(Assets.SFX_ENEMY_HIT, 1f, 1f, 0f);
         
         if (health <= 0) {
             die();
@@ -195,15 +196,10 @@ public class Boss extends Actor {
 		clearActions();
 		addAction(color(Color.RED, 1f));
 		
-		Vector2 pointA = new Vector2(getStage().getViewport().getScreenWidth() * 0.7f, getStage().getViewport().getScreenHeight() / 2f);
-        Vector2 pointB = new Vector2(getStage().getViewport().getScreenWidth() * 0.05f, getStage().getViewport().getScreenHeight() / 2f);
-        Vector2 pointC = new Vector2(getStage().getViewport().getScreenWidth() * 0.05f, getStage().getViewport().getScreenHeight() * 0.95f);
-        Vector2 pointD = new Vector2(getStage().getViewport().getScreenWidth() * 0.7f, getStage().getViewport().getScreenHeight() * 0.95f);
-        
-        getStage().screenToStageCoordinates(pointA);
-        getStage().screenToStageCoordinates(pointB);
-        getStage().screenToStageCoordinates(pointC);
-        getStage().screenToStageCoordinates(pointD);
+		Vector2 pointA = arenaPoint(0.7f, 0.5f);
+        Vector2 pointB = arenaPoint(0.05f, 0.5f);
+        Vector2 pointC = arenaPoint(0.05f, 0.05f);
+        Vector2 pointD = arenaPoint(0.7f, 0.05f);
 		
 		addAction(
 	            forever(
@@ -256,6 +252,10 @@ public class Boss extends Actor {
 	            ));
 	}
 
+    private Vector2 arenaPoint(float percentX, float percentY) {
+        return new Vector2(arena.x + arena.width * percentX, arena.y + arena.height * percentY);
+    }
+
 	private void die() {
         clearActions();
         addAction(color(Color.BLACK, 0.5f));
@@ -23,13 +23,7 @@
  */
 package broken.shotgun.throwthemoon.actors;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -38,6 +32,13 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Pool;
+
+import broken.shotgun.throwthemoon.ai.Agent;
+import broken.shotgun.throwthemoon.ai.EnemyBrain;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
 
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.color;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.fadeOut;
@@ -45,19 +46,15 @@ import static com.badlogic.gdx.scenes.scene2d.actions.Actions.parallel;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.removeActor;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.sequence;
 
-public class Enemy extends Actor {
-    private static final String TEXTURE_FILENAME = "enemy.png";
-    private static final String SFX_HIT_FILENAME = "sfx/enemy_hit.wav";
+public class Enemy extends Actor implements Pool.Poolable, Agent {
+    private static final int MAX_HEALTH = 5;
     private static final int FRAME_WIDTH = 256;
     private static final int FRAME_HEIGHT = 256;
 
-    private final Texture texture;
-    private final TextureRegion[] regions;
-
     private final Animation idle;
     private TextureRegion currentFrame;
 
-    private final Sound hitSfx;
+    private final SoundPlayer sounds;
 
     private float stateTime = 0.0f;
 
@@ -65,34 +62,44 @@ public class Enemy extends Actor {
 
     private int health;
 
-    public Enemy(final AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.load(SFX_HIT_FILENAME, Sound.class);
-        manager.finishLoading();
+    private final EnemyBrain brain;
+    private float velocityX = 0f;
+    private float velocityY = 0f;
 
-        texture = manager.get(TEXTURE_FILENAME);
-        regions = TextureRegion.split(texture, FRAME_WIDTH, FRAME_HEIGHT)[0];
-        idle = new Animation(0.1f, regions[0], regions[1], regions[2]);
-        idle.setPlayMode(Animation.PlayMode.LOOP);
+    public Enemy(final AnimationLibrary animations, final SoundPlayer sounds) {
+        idle = animations.get(AnimationLibrary.SHEET_ENEMY, AnimationLibrary.CLIP_IDLE);
 
-        hitSfx = manager.get(SFX_HIT_FILENAME);
+        this.sounds = sounds;
 
         currentFrame = idle.getKeyFrame(0.0f);
 
-        setWidth(currentFrame.getRegionWidth());
-        setHeight(currentFrame.getRegionHeight());
+        setWidth(FRAME_WIDTH);
+        setHeight(FRAME_HEIGHT);
         setOrigin(getWidth() / 2, getHeight() / 2);
 
         collisionArea = new Rectangle(50, 0, (int)getWidth() - 100, (int)getHeight());
 
-        health = 5;
+        health = MAX_HEALTH;
+
+        brain = new EnemyBrain(this);
+    }
+
+    @Override
+    public void reset() {
+        clearActions();
+        setColor(Color.WHITE);
+        setPosition(0, 0);
+        stateTime = 0.0f;
+        currentFrame = idle.getKeyFrame(0.0f);
+        collisionArea.setPosition(50, 0);
+        health = MAX_HEALTH;
+        brain.reset();
     }
 
     @Override
     public void act(float delta) {
         super.act(delta);
+        if (!hasActions()) moveBy(velocityX * delta, velocityY * delta);
         stateTime += delta;
         currentFrame = idle.getKeyFrame(stateTime);
         collisionArea.setPosition(getX() + 50, getY());
@@ -116,6 +123,34 @@ public class Enemy extends Actor {
         shapes.rect(collisionArea.x, collisionArea.y, collisionArea.width, collisionArea.height);
     }
 
+    @Override
+    public float getAgentX() {
+        return getX() + getOriginX();
+    }
+
+    @Override
+    public float getAgentY() {
+        return getY();
+    }
+
+    @Override
+    public void steer(float velocityX, float velocityY) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    /**
+     * Fading in, knockback and dying all run as actions, and the enemy holds still for them.
+     */
+    @Override
+    public boolean isStunned() {
+        return hasActions();
+    }
+
+    public EnemyBrain getBrain() {
+        return brain;
+    }
+
     public Rectangle getCollisionArea() {
         return collisionArea;
     }
@@ -123,7 +158,7 @@ public class Enemy extends Actor {
     public void takeDamage(int direction) {
         health--;
 
-        hitSfx.play();
+        sounds.play(Assets.SFX_ENEMY_HIT, 1f, 1f, 0f);
 
         if (health <= 0) {
             die();
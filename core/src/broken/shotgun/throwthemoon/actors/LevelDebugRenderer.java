@@ -27,7 +27,6 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 
-import broken.shotgun.throwthemoon.models.EnemySpawnWall;
 import broken.shotgun.throwthemoon.models.Level;
 
 public class LevelDebugRenderer extends Actor {
@@ -42,8 +41,8 @@ public class LevelDebugRenderer extends Actor {
         super.drawDebug(shapes);
         if(!getDebug() || level == null) return;
         shapes.setColor(Color.GREEN);
-        for(EnemySpawnWall wall : level.enemySpawnWallList) {
-            shapes.line(wall.spawnWallX, 0, wall.spawnWallX, getStage().getHeight());
+        for(int wall = 0; wall < level.getWallCount(); ++wall) {
+            shapes.line(level.getWallX(wall), 0, level.getWallX(wall), getStage().getHeight());
         }
     }
 }
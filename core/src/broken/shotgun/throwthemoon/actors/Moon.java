@@ -23,13 +23,7 @@
  */
 package broken.shotgun.throwthemoon.actors;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -37,30 +31,26 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
 public class Moon extends Actor {
 	public static final int DISTANCE_TO_EARTH_IN_MILES = 238900;
-    private static final String TEXTURE_FILENAME = "moon.png";
-    private static final String SFX_MOON_CRASH_FILENAME = "sfx/moon_crash.wav";
-    private final Texture texture;
-    private final Sound crashSfx;
+    private static final int WIDTH = 1520;
+    private static final int HEIGHT = 1500;
+    private final SoundPlayer sounds;
     private TextureRegion currentFrame;
     private boolean falling;
     private int distance;
 
-    public Moon(final AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.load(SFX_MOON_CRASH_FILENAME, Sound.class);
-        manager.finishLoading();
-
-        texture = manager.get(TEXTURE_FILENAME);
-        crashSfx = manager.get(SFX_MOON_CRASH_FILENAME);
+    public Moon(final AnimationLibrary animations, final SoundPlayer sounds) {
+        this.sounds = sounds;
 
-        currentFrame = new TextureRegion(texture);
+        currentFrame = animations.getRegion(Assets.MOON_TEXTURE);
 
-        setWidth(currentFrame.getRegionWidth());
-        setHeight(currentFrame.getRegionHeight());
+        setWidth(WIDTH);
+        setHeight(HEIGHT);
         setOrigin(getWidth() / 2, getHeight() / 2);
 
         reset(); 
@@ -93,7 +83,7 @@ public class Moon extends Actor {
         falling = true;
         distance = 0;
 
-        crashSfx.play(1.0f, 0.5f, 0f);
+        sounds.play(Assets.SFX_MOON_CRASH, 1.0f, 0.5f, 0f);
 
         addAction(
                 Actions.moveBy(10, -getHeight(), 10f, Interpolation.fade));
@@ -27,14 +27,9 @@ import static com.badlogic.gdx.scenes.scene2d.actions.Actions.color;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.forever;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.sequence;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.Rectangle;
@@ -42,33 +37,31 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
 public class MoonChain extends Actor {
-    private static final String TEXTURE_FILENAME = "chain.png";
-    private static final String SFX_CHAIN_PULL_FILENAME = "sfx/chain_rattle.mp3";
-    private final Texture texture;
+    private final TextureRegion tile;
     private final Rectangle collisionArea;
     private final Vector2 position;
-    private final Sound chainPullSfx;
+    private final SoundPlayer sounds;
 
     private Player attachedPlayer;
 
     private static final int TILE_COUNT = 50;
+    private static final int TILE_SIZE = 32;
     private boolean hinting = false;
 
-    public MoonChain(final AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.load(SFX_CHAIN_PULL_FILENAME, Sound.class);
-        manager.finishLoading();
+    public MoonChain(final AnimationLibrary animations, final SoundPlayer sounds) {
+        // atlas regions can't use texture wrapping, so the chain is drawn as a column of flipped tiles
+        tile = new TextureRegion(animations.findRegion("chain"));
+        tile.flip(true, true);
 
-        texture = manager.get(TEXTURE_FILENAME);
-        texture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.Repeat);
-        
-        chainPullSfx = manager.get(SFX_CHAIN_PULL_FILENAME);
+        this.sounds = sounds;
 
-        setWidth(texture.getWidth());
-        setHeight(texture.getHeight() * TILE_COUNT);
+        setWidth(TILE_SIZE);
+        setHeight(TILE_SIZE * TILE_COUNT);
         setOrigin(getWidth() / 2, 0);
         
         // Note: scale is not used in draw for the chain, this is a hack to make easier to put the chain down
@@ -94,12 +87,10 @@ public class MoonChain extends Actor {
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
         batch.setColor(getColor());
-        batch.draw(texture,
-                getX(), getY(), // x, y
-                getWidth(), // width
-                getHeight(), // height
-                1, 0, // u, v
-                0, TILE_COUNT); // u2, v2
+        float tileHeight = getHeight() / TILE_COUNT;
+        for(int i = 0; i < TILE_COUNT; i++) {
+            batch.draw(tile, getX(), getY() + i * tileHeight, getWidth(), tileHeight);
+        }
         batch.setColor(Color.WHITE);
     }
 
@@ -139,7 +130,7 @@ public class MoonChain extends Actor {
 		float volume = 1f; // [0.0, 1.0]
 		float pitch = 1f; // [0.5. 2.0]
 		float pan = 0f; // [-1, 1]
-		chainPullSfx.play(volume, pitch, pan);
+		sounds.play(Assets.SFX_CHAIN_PULL, volume, pitch, pan);
 	}
 
 	public void hintPullChain() {
@@ -24,13 +24,7 @@
 
 package broken.shotgun.throwthemoon.actors;
 
-import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -39,24 +33,24 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.color;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.removeActor;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.run;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.sequence;
 
 public class Player extends Actor {
-    private static final String TEXTURE_FILENAME = "camacho.png";
-    private static final String SFX_HIT_FILENAME = "sfx/hit.wav";
-    private static final String SFX_DIE_FILENAME = "sfx/death.wav";
+    /** Keyboard walking speed in units per second, the old 7 units per frame at 60 fps. */
+    public static final float KEYBOARD_SPEED = 420f;
     private static final float MOVEMENT_DEAD_ZONE = 10.0f;
     private static final int FRAME_WIDTH = 256;
     private static final int FRAME_HEIGHT = 256;
     private static final float TAP_COUNT_INTERVAL = 0.4f;
 
-    private final Texture texture;
-    private final TextureRegion[] textureRegions;
-    private final Sound hitSfx;
-    private final Sound dieSfx;
+    private final SoundPlayer sounds;
 
     private final Animation idle;
     private final Animation walk;
@@ -79,6 +73,7 @@ public class Player extends Actor {
     private State state;
     private final Vector2 moveTarget;
     private final Vector2 position;
+
     public final Vector2 velocity;
 
     private float speed = 500.0f;
@@ -86,28 +81,12 @@ public class Player extends Actor {
     private float stateTime = 0.0f;
     private boolean flipX = false;
 
-    public Player(final AssetManager manager) {
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-        manager.load(SFX_HIT_FILENAME, Sound.class);
-        manager.load(SFX_DIE_FILENAME, Sound.class);
-        manager.finishLoading();
-
-        texture = manager.get(TEXTURE_FILENAME);
-        textureRegions = TextureRegion.split(texture, FRAME_WIDTH, FRAME_HEIGHT)[0];
-
-        idle = new Animation(0.1f, textureRegions[0], textureRegions[1], textureRegions[2]);
-        idle.setPlayMode(Animation.PlayMode.LOOP);
-
-        walk = new Animation(0.3f, textureRegions[3], textureRegions[4]);
-        walk.setPlayMode(Animation.PlayMode.LOOP);
-
-        attack = new Animation(0.3f, textureRegions[5], textureRegions[6], textureRegions[7]);
-        attack.setPlayMode(Animation.PlayMode.NORMAL);
+    public Player(final AnimationLibrary animations, final SoundPlayer sounds) {
+        idle = animations.get(AnimationLibrary.SHEET_PLAYER, AnimationLibrary.CLIP_IDLE);
+        walk = animations.get(AnimationLibrary.SHEET_PLAYER, AnimationLibrary.CLIP_WALK);
+        attack = animations.get(AnimationLibrary.SHEET_PLAYER, AnimationLibrary.CLIP_ATTACK);
 
-        hitSfx = manager.get(SFX_HIT_FILENAME);
-        dieSfx = manager.get(SFX_DIE_FILENAME);
+        this.sounds = sounds;
 
         setWidth(FRAME_WIDTH);
         setHeight(FRAME_HEIGHT);
@@ -170,13 +149,13 @@ public class Player extends Actor {
         }
     }
 
-    private void updateMovement(float delta) {
+    void updateMovement(float delta) {
         float deltaX = (getX() + getOriginX()) - moveTarget.x;
         float deltaY = (getY() + getOriginY()) - moveTarget.y;
 
         if(velocity.x != 0 || velocity.y != 0) {
-            setX(getX() + velocity.x);
-            setY(getY() + velocity.y);
+            setX(getX() + velocity.x * delta);
+            setY(getY() + velocity.y * delta);
 
             collisionArea.setPosition(getX() + 50, getY());
 
@@ -294,7 +273,7 @@ public class Player extends Actor {
 
         takingDamage = true;
 
-        hitSfx.play();
+        sounds.play(Assets.SFX_PLAYER_HIT, 1f, 1f, 0f);
 
         addAction(
                 sequence(
@@ -313,7 +292,7 @@ public class Player extends Actor {
     	
     	dying = true;
     	
-        dieSfx.play(1.0f, 0.5f, 0);
+        sounds.play(Assets.SFX_PLAYER_DIE, 1.0f, 0.5f, 0f);
 
         addAction(
             sequence(
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.ai;
+
+import com.badlogic.gdx.math.WindowedMean;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Spreads enemy thinking over steps. Every step the next {@link #getQuota()} brains in round robin
+ * order get to think, so a big wave makes each enemy think less often instead of making the step
+ * longer. The quota itself is deterministic; when measuring, the scheduler also times the thinking and
+ * suggests the quota that fits the time budget, which the owner may adopt between steps.
+ */
+public class AiScheduler {
+    public static final long DEFAULT_BUDGET_NANOS = 500000L;
+    public static final int DEFAULT_QUOTA = 64;
+    public static final int MIN_QUOTA = 8;
+    public static final int MAX_QUOTA = 4096;
+    private static final int COST_WINDOW = 60;
+
+    private final Array<EnemyBrain> brains;
+    private final WindowedMean thinkCost;
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private int quota = DEFAULT_QUOTA;
+    private int cursor = 0;
+    private boolean measuring;
+
+    public AiScheduler() {
+        brains = new Array<EnemyBrain>(false, 64);
+        thinkCost = new WindowedMean(COST_WINDOW);
+    }
+
+    public void add(EnemyBrain brain) {
+        if(brain.slot != -1) return;
+        brain.slot = brains.size;
+        brains.add(brain);
+    }
+
+    /**
+     * Removes the brain in constant time without costing any other brain its turn: brains before the
+     * cursor already thought this round and brains from the cursor on are still waiting, and every brain
+     * stays on its side.
+     */
+    public void remove(EnemyBrain brain) {
+        int index = brain.slot;
+        if(index == -1) return;
+        brain.slot = -1;
+
+        if(index < cursor) {
+            // refill the hole with the last brain that already thought, moving the hole onto the cursor
+            cursor--;
+            move(cursor, index);
+            index = cursor;
+        }
+        int last = brains.size - 1;
+        move(last, index);
+        brains.pop();
+    }
+
+    public void clear() {
+        for(int i = 0; i < brains.size; i++) {
+            brains.get(i).slot = -1;
+        }
+        brains.clear();
+        cursor = 0;
+    }
+
+    /**
+     * Lets the next brains in line think, at most one turn per brain.
+     */
+    public void run() {
+        int count = Math.min(quota, brains.size);
+        if(count == 0) return;
+
+        long start = measuring ? TimeUtils.nanoTime() : 0L;
+        for(int i = 0; i < count; i++) {
+            if(cursor >= brains.size) cursor = 0;
+            brains.get(cursor++).think();
+        }
+        if(measuring) thinkCost.addValue((TimeUtils.nanoTime() - start) / (float) count);
+    }
+
+    /**
+     * @return the quota that fits the budget at the measured cost per think, or the current quota until
+     * enough has been measured
+     */
+    public int getSuggestedQuota() {
+        if(!thinkCost.hasEnoughData()) return quota;
+        int suggested = (int) (budgetNanos / Math.max(thinkCost.getMean(), 1f));
+        return Math.max(MIN_QUOTA, Math.min(MAX_QUOTA, suggested));
+    }
+
+    public void setQuota(int quota) {
+        this.quota = quota;
+    }
+
+    public int getQuota() {
+        return quota;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Times every run to suggest a quota; off by default since it reads the clock.
+     */
+    public void setMeasuring(boolean measuring) {
+        this.measuring = measuring;
+        if(!measuring) thinkCost.clear();
+    }
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    /**
+     * @return mean nanoseconds per think over the last measured steps
+     */
+    public float getMeanThinkCost() {
+        return thinkCost.getMean();
+    }
+
+    public int size() {
+        return brains.size;
+    }
+
+    private void move(int from, int to) {
+        if(from == to) return;
+        EnemyBrain brain = brains.get(from);
+        brains.set(to, brain);
+        brain.slot = to;
+    }
+}
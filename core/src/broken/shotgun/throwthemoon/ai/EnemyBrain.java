@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.ai;
+
+import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
+import com.badlogic.gdx.ai.fsm.StateMachine;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+
+/**
+ * Decision making for one regular enemy: an {@link EnemyState} machine plus an arrive steering
+ * behaviour towards a spot beside the target. A brain only thinks when the {@link AiScheduler} gives it
+ * a turn; the velocity it picks is kept by the agent until the next turn.
+ */
+public class EnemyBrain {
+    static final float AGGRO_RANGE = 1400f;
+    static final float SLOT_DISTANCE = 180f;
+    static final float ARRIVED_DISTANCE = 16f;
+    static final float HOLD_LEASH = 120f;
+    static final float MAX_SPEED = 180f;
+    static final float SLOW_RADIUS = 240f;
+
+    private final Agent agent;
+    private final StateMachine<EnemyBrain> stateMachine;
+    private Actor target;
+    private float slotOffsetY;
+    /** index in the {@link AiScheduler} running this brain, -1 while not scheduled */
+    int slot = -1;
+
+    public EnemyBrain(Agent agent) {
+        this.agent = agent;
+        this.stateMachine = new DefaultStateMachine<EnemyBrain>(this, EnemyState.IDLE);
+    }
+
+    /**
+     * @param slotOffsetY how far above or below the target this enemy lines up, so a wave doesn't stack
+     */
+    public void setTarget(Actor target, float slotOffsetY) {
+        this.target = target;
+        this.slotOffsetY = slotOffsetY;
+    }
+
+    public void think() {
+        stateMachine.update();
+    }
+
+    public void reset() {
+        stop();
+        target = null;
+        stateMachine.changeState(EnemyState.IDLE);
+    }
+
+    public Agent getAgent() {
+        return agent;
+    }
+
+    public StateMachine<EnemyBrain> getStateMachine() {
+        return stateMachine;
+    }
+
+    boolean isTargetInRange() {
+        if(target == null || target.getParent() == null) return false;
+        return Math.abs(targetX() - agent.getAgentX()) < AGGRO_RANGE;
+    }
+
+    /**
+     * Steers towards the slot, slowing down inside {@link #SLOW_RADIUS}.
+     * @return distance left to the slot
+     */
+    float arrive() {
+        float deltaX = slotX() - agent.getAgentX();
+        float deltaY = slotY() - agent.getAgentY();
+        float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        if(distance <= ARRIVED_DISTANCE) {
+            stop();
+            return distance;
+        }
+
+        float speed = distance > SLOW_RADIUS ? MAX_SPEED : MAX_SPEED * distance / SLOW_RADIUS;
+        agent.steer(deltaX / distance * speed, deltaY / distance * speed);
+        return distance;
+    }
+
+    float getSlotDistance() {
+        float deltaX = slotX() - agent.getAgentX();
+        float deltaY = slotY() - agent.getAgentY();
+        return (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    }
+
+    void stop() {
+        agent.steer(0f, 0f);
+    }
+
+    private float targetX() {
+        return target.getX() + target.getOriginX();
+    }
+
+    /*
+     * Enemies line up on whichever side of the target they are already on.
+     */
+    private float slotX() {
+        return agent.getAgentX() < targetX() ? targetX() - SLOT_DISTANCE : targetX() + SLOT_DISTANCE;
+    }
+
+    private float slotY() {
+        return target.getY() + slotOffsetY;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.ai;
+
+import com.badlogic.gdx.ai.fsm.State;
+import com.badlogic.gdx.ai.msg.Telegram;
+
+/**
+ * States of a regular enemy: wait for the player to come close, walk up to a spot beside them, hold it
+ * while they stay put, and stand still while reeling from a hit.
+ */
+public enum EnemyState implements State<EnemyBrain> {
+    IDLE() {
+        @Override
+        public void update(EnemyBrain brain) {
+            if(brain.getAgent().isStunned()) brain.getStateMachine().changeState(STAGGER);
+            else if(brain.isTargetInRange()) brain.getStateMachine().changeState(APPROACH);
+        }
+    },
+
+    APPROACH() {
+        @Override
+        public void update(EnemyBrain brain) {
+            if(brain.getAgent().isStunned()) {
+                brain.getStateMachine().changeState(STAGGER);
+            }
+            else if(!brain.isTargetInRange()) {
+                brain.getStateMachine().changeState(IDLE);
+            }
+            else if(brain.arrive() <= EnemyBrain.ARRIVED_DISTANCE) {
+                brain.getStateMachine().changeState(HOLD);
+            }
+        }
+    },
+
+    HOLD() {
+        @Override
+        public void enter(EnemyBrain brain) {
+            brain.stop();
+        }
+
+        @Override
+        public void update(EnemyBrain brain) {
+            if(brain.getAgent().isStunned()) brain.getStateMachine().changeState(STAGGER);
+            else if(brain.getSlotDistance() > EnemyBrain.HOLD_LEASH) brain.getStateMachine().changeState(APPROACH);
+        }
+    },
+
+    STAGGER() {
+        @Override
+        public void enter(EnemyBrain brain) {
+            brain.stop();
+        }
+
+        @Override
+        public void update(EnemyBrain brain) {
+            if(!brain.getAgent().isStunned()) brain.getStateMachine().changeState(APPROACH);
+        }
+    };
+
+    @Override
+    public void enter(EnemyBrain brain) {
+    }
+
+    @Override
+    public void exit(EnemyBrain brain) {
+    }
+
+    @Override
+    public boolean onMessage(EnemyBrain brain, Telegram telegram) {
+        return false;
+    }
+}
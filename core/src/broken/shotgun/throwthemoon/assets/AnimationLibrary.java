@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Central registry of sprite sheets and their animation clips.
+ * <p>
+ * Sheets are regions of the packed sprite atlas, so every actor drawing from the library shares one
+ * texture and consecutive actors never force a {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} flush.
+ * <p>
+ * Each sheet is split once and each clip is built once, the first time it is requested. The returned
+ * {@link Animation}s are shared by every actor using the clip, so callers must treat them as read only
+ * and keep their own state time.
+ * <p>
+ * A {@link #headless()} library hands out blank regions with the right number of frames, so the
+ * simulation can run its animations without a GL context or any loaded texture.
+ */
+public class AnimationLibrary {
+    public static final String SHEET_PLAYER = "player";
+    public static final String SHEET_ENEMY = "enemy";
+    public static final String SHEET_BOSS = "boss";
+    public static final String SHEET_BACKGROUND = "background";
+
+    public static final String CLIP_IDLE = "idle";
+    public static final String CLIP_WALK = "walk";
+    public static final String CLIP_ATTACK = "attack";
+
+    private final AssetManager manager;
+    private final ObjectMap<String, Sheet> sheets;
+
+    private static class Sheet {
+        final String regionName;
+        final int frameWidth;
+        final int frameHeight;
+        final ObjectMap<String, Clip> clips;
+        TextureRegion[] frames;
+
+        Sheet(String regionName, int frameWidth, int frameHeight) {
+            this.regionName = regionName;
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+            this.clips = new ObjectMap<String, Clip>();
+        }
+    }
+
+    private static class Clip {
+        final float frameDuration;
+        final PlayMode playMode;
+        final int[] frameIndices;
+        Animation animation;
+
+        Clip(float frameDuration, PlayMode playMode, int[] frameIndices) {
+            this.frameDuration = frameDuration;
+            this.playMode = playMode;
+            this.frameIndices = frameIndices;
+        }
+    }
+
+    /**
+     * @return a library whose regions have no texture, for running the simulation without GL
+     */
+    public static AnimationLibrary headless() {
+        return new AnimationLibrary(null);
+    }
+
+    public AnimationLibrary(final AssetManager manager) {
+        this.manager = manager;
+        this.sheets = new ObjectMap<String, Sheet>();
+
+        defineSheet(SHEET_PLAYER, "camacho", 256, 256);
+        defineClip(SHEET_PLAYER, CLIP_IDLE, 0.1f, PlayMode.LOOP, 0, 1, 2);
+        defineClip(SHEET_PLAYER, CLIP_WALK, 0.3f, PlayMode.LOOP, 3, 4);
+        defineClip(SHEET_PLAYER, CLIP_ATTACK, 0.3f, PlayMode.NORMAL, 5, 6, 7);
+
+        defineSheet(SHEET_ENEMY, "enemy", 256, 256);
+        defineClip(SHEET_ENEMY, CLIP_IDLE, 0.1f, PlayMode.LOOP, 0, 1, 2);
+
+        defineSheet(SHEET_BOSS, "boss", 512, 512);
+        defineClip(SHEET_BOSS, CLIP_IDLE, 0.1f, PlayMode.LOOP, 0, 1, 2);
+
+        defineSheet(SHEET_BACKGROUND, "bg_tiles", 256, 256);
+        defineClip(SHEET_BACKGROUND, CLIP_IDLE, 0.1f, PlayMode.LOOP, 0, 1, 2);
+    }
+
+    public void defineSheet(String sheetName, String regionName, int frameWidth, int frameHeight) {
+        sheets.put(sheetName, new Sheet(regionName, frameWidth, frameHeight));
+    }
+
+    public void defineClip(String sheetName, String clipName, float frameDuration, PlayMode playMode, int... frameIndices) {
+        getSheet(sheetName).clips.put(clipName, new Clip(frameDuration, playMode, frameIndices));
+    }
+
+    /**
+     * @return the shared animation for the clip, built on first use
+     */
+    public Animation get(String sheetName, String clipName) {
+        Sheet sheet = getSheet(sheetName);
+        Clip clip = sheet.clips.get(clipName);
+        if (clip == null) throw new GdxRuntimeException("Unknown clip " + clipName + " in sheet " + sheetName);
+
+        if (clip.animation == null) {
+            TextureRegion[] frames = getFrames(sheet);
+            TextureRegion[] keyFrames = new TextureRegion[clip.frameIndices.length];
+            for (int i = 0; i < keyFrames.length; ++i) {
+                keyFrames[i] = frames[clip.frameIndices[i]];
+            }
+            clip.animation = new Animation(clip.frameDuration, keyFrames);
+            clip.animation.setPlayMode(clip.playMode);
+        }
+        return clip.animation;
+    }
+
+    /**
+     * @return the named region of the sprite atlas
+     */
+    public TextureRegion findRegion(String regionName) {
+        if (manager == null) return new TextureRegion();
+
+        TextureAtlas atlas = manager.get(Assets.SPRITES_ATLAS);
+        TextureRegion region = atlas.findRegion(regionName);
+        if (region == null) throw new GdxRuntimeException("Missing region " + regionName + " in " + Assets.SPRITES_ATLAS.fileName);
+        return region;
+    }
+
+    /**
+     * @return a region covering a whole standalone texture
+     */
+    public TextureRegion getRegion(AssetDescriptor<Texture> texture) {
+        if (manager == null) return new TextureRegion();
+        return new TextureRegion(manager.get(texture));
+    }
+
+    private Sheet getSheet(String sheetName) {
+        Sheet sheet = sheets.get(sheetName);
+        if (sheet == null) throw new GdxRuntimeException("Unknown sprite sheet " + sheetName);
+        return sheet;
+    }
+
+    private TextureRegion[] getFrames(Sheet sheet) {
+        if (sheet.frames == null && manager == null) {
+            int frameCount = 0;
+            for (Clip clip : sheet.clips.values()) {
+                for (int index : clip.frameIndices) frameCount = Math.max(frameCount, index + 1);
+            }
+            sheet.frames = new TextureRegion[frameCount];
+            for (int i = 0; i < frameCount; ++i) sheet.frames[i] = new TextureRegion();
+        }
+        else if (sheet.frames == null) {
+            sheet.frames = findRegion(sheet.regionName).split(sheet.frameWidth, sheet.frameHeight)[0];
+        }
+        return sheet.frames;
+    }
+}
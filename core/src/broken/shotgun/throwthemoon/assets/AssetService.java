@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import broken.shotgun.throwthemoon.models.Level;
+
+/**
+ * Single {@link AssetManager} shared by every screen. Each screen acquires the asset groups it needs
+ * under an owner key and releases them when it goes away. Assets are only unloaded once no owner
+ * references them, so anything two screens share stays resident across the transition.
+ */
+public class AssetService implements Disposable {
+    private final AssetManager manager;
+    private final ObjectMap<Object, Array<AssetDescriptor<?>>> owners;
+
+    public AssetService() {
+        this.manager = new AssetManager();
+        manager.setLoader(Level.class, new LevelLoader(new InternalFileHandleResolver()));
+        this.owners = new ObjectMap<Object, Array<AssetDescriptor<?>>>();
+    }
+
+    public AssetManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Queues a reference to each asset in the group on behalf of the owner. Assets that are already
+     * resident only have their reference count bumped, so the next {@link AssetManager#update()}
+     * completes without touching the disk.
+     */
+    public void acquire(Object owner, AssetDescriptor<?>[] group) {
+        Array<AssetDescriptor<?>> held = owners.get(owner);
+        if(held == null) {
+            held = new Array<AssetDescriptor<?>>();
+            owners.put(owner, held);
+        }
+        for(AssetDescriptor<?> asset : group) {
+            manager.load(asset);
+            held.add(asset);
+        }
+    }
+
+    /**
+     * @return every asset the owner holds a reference to, or null if it holds none
+     */
+    public Array<AssetDescriptor<?>> getHeld(Object owner) {
+        return owners.get(owner);
+    }
+
+    public boolean isAcquired(Object owner) {
+        return owners.containsKey(owner);
+    }
+
+    /**
+     * @return true if every asset in the group is resident
+     */
+    public boolean isLoaded(AssetDescriptor<?>[] group) {
+        for(AssetDescriptor<?> asset : group) {
+            if(!manager.isLoaded(asset.fileName, asset.type)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands every reference the first owner holds over to the second, e.g. from whatever loaded a screen's
+     * assets to the screen once it is built.
+     */
+    public void transfer(Object from, Object to) {
+        Array<AssetDescriptor<?>> held = owners.remove(from);
+        if(held == null) return;
+
+        Array<AssetDescriptor<?>> target = owners.get(to);
+        if(target == null) owners.put(to, held);
+        else target.addAll(held);
+    }
+
+    /**
+     * Drops every reference the owner holds. Assets whose count reaches zero are disposed, and assets that
+     * are still queued or loading are taken off the queue, so releasing before loading finished leaks nothing.
+     */
+    public void release(Object owner) {
+        Array<AssetDescriptor<?>> held = owners.remove(owner);
+        if(held == null) return;
+
+        // every held descriptor went through load(), so unload finds it loaded, loading or queued
+        for(int i = 0; i < held.size; i++) {
+            manager.unload(held.get(i).fileName);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        owners.clear();
+        manager.dispose();
+    }
+}
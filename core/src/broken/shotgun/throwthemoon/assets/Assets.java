@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+
+import broken.shotgun.throwthemoon.models.Level;
+
+/**
+ * Manifest of every asset the game loads, grouped by the screen that needs them. Groups are acquired
+ * through the {@link AssetService} and loaded by a {@link broken.shotgun.throwthemoon.screens.LoadingScreen},
+ * so nothing has to block on loading once a screen is built.
+ */
+public final class Assets {
+    public static final AssetDescriptor<TextureAtlas> SPRITES_ATLAS = new AssetDescriptor<TextureAtlas>("sprites.atlas", TextureAtlas.class);
+    public static final AssetDescriptor<Texture> MOON_TEXTURE = new AssetDescriptor<Texture>("moon.png", Texture.class);
+    public static final AssetDescriptor<Level> CHAPTER_1_LEVEL = new AssetDescriptor<Level>("levels/chapter1.lvl", Level.class);
+    public static final AssetDescriptor<BitmapFont> HUD_FONT = FontCache.descriptor("fonts/anonymous_pro_b.ttf", 20);
+    public static final AssetDescriptor<Texture> STAGE_CLEAR_TEXTURE = new AssetDescriptor<Texture>("stageclearbg.png", Texture.class);
+
+    public static final AssetDescriptor<Sound> SFX_PLAYER_HIT = new AssetDescriptor<Sound>("sfx/hit.wav", Sound.class);
+    public static final AssetDescriptor<Sound> SFX_PLAYER_DIE = new AssetDescriptor<Sound>("sfx/death.wav", Sound.class);
+    public static final AssetDescriptor<Sound> SFX_ENEMY_HIT = new AssetDescriptor<Sound>("sfx/enemy_hit.wav", Sound.class);
+    public static final AssetDescriptor<Sound> SFX_MOON_CRASH = new AssetDescriptor<Sound>("sfx/moon_crash.wav", Sound.class);
+    public static final AssetDescriptor<Sound> SFX_CHAIN_PULL = new AssetDescriptor<Sound>("sfx/chain_rattle.mp3", Sound.class);
+    public static final AssetDescriptor<Sound> SFX_TV_ON = new AssetDescriptor<Sound>("sfx/tv_turn_on.mp3", Sound.class);
+
+    public static final AssetDescriptor<Music> GAME_MUSIC = new AssetDescriptor<Music>("SnestedLoops.ogg", Music.class);
+    public static final AssetDescriptor<Music> STAGE_CLEAR_MUSIC = new AssetDescriptor<Music>("dotty.mp3", Music.class);
+
+    public static final AssetDescriptor<?>[] GAME = new AssetDescriptor<?>[] {
+        SPRITES_ATLAS,
+        MOON_TEXTURE,
+        CHAPTER_1_LEVEL,
+        HUD_FONT,
+        SFX_PLAYER_HIT,
+        SFX_PLAYER_DIE,
+        SFX_ENEMY_HIT,
+        SFX_MOON_CRASH,
+        SFX_CHAIN_PULL,
+        SFX_TV_ON,
+        GAME_MUSIC
+    };
+
+    public static final AssetDescriptor<?>[] STAGE_CLEAR = new AssetDescriptor<?>[] {
+        STAGE_CLEAR_TEXTURE,
+        STAGE_CLEAR_MUSIC
+    };
+
+    private Assets() {
+    }
+}
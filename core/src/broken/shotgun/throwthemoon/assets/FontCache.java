@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+/**
+ * Bitmap fonts rasterised from TrueType fonts at build time, kept as a glyph atlas plus an AngelCode
+ * {@code .fnt} descriptor per font and size.
+ * <p>
+ * The desktop {@code bakeFonts} task writes them under {@link #CACHE_DIRECTORY}; the game only loads the
+ * baked descriptors through the asset manager, so no font is generated on the device.
+ */
+public final class FontCache {
+    public static final String CACHE_DIRECTORY = "fonts/cache/";
+    /** glyphs baked unless a font asks for others: the missing glyph and printable ASCII */
+    public static final String DEFAULT_CHARS = "\u0000 !\"#$%&'()*+,-./0123456789:;<=>?@ABCDEFGHIJKLMNOPQRSTUVWXYZ[\\]^_`abcdefghijklmnopqrstuvwxyz{|}~";
+
+    private FontCache() {
+    }
+
+    /**
+     * @return the baked font for the TrueType font at the given pixel size with the default glyphs
+     */
+    public static AssetDescriptor<BitmapFont> descriptor(String fontPath, int size) {
+        return descriptor(fontPath, size, DEFAULT_CHARS);
+    }
+
+    public static AssetDescriptor<BitmapFont> descriptor(String fontPath, int size, String characters) {
+        return new AssetDescriptor<BitmapFont>(CACHE_DIRECTORY + key(fontPath, size, characters) + ".fnt", BitmapFont.class);
+    }
+
+    /**
+     * @return file name shared by the descriptor and its pages, unique to the font, size and charset
+     */
+    public static String key(String fontPath, int size, String characters) {
+        String fontName = fontPath.substring(fontPath.lastIndexOf('/') + 1);
+        int extension = fontName.lastIndexOf('.');
+        if(extension > 0) fontName = fontName.substring(0, extension);
+        return fontName + "-" + size + "-" + Integer.toHexString(characters.hashCode());
+    }
+}
@@ -21,9 +21,21 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package broken.shotgun.throwthemoon.models;
+package broken.shotgun.throwthemoon.assets;
 
-public class EnemySpawn {
-    public int enemyId;
-    public SpawnLocation location;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Plays one shot sound effects on behalf of the simulation, so actors never hold {@link Sound}s and
+ * can run without an audio device.
+ */
+public interface SoundPlayer {
+    SoundPlayer SILENT = new SoundPlayer() {
+        @Override
+        public void play(AssetDescriptor<Sound> sound, float volume, float pitch, float pan) {
+        }
+    };
+
+    void play(AssetDescriptor<Sound> sound, float volume, float pitch, float pan);
 }
@@ -21,18 +21,22 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package broken.shotgun.throwthemoon.models;
+package broken.shotgun.throwthemoon.audio;
 
-import java.util.ArrayList;
-import java.util.List;
+/**
+ * Drains an {@link AudioQueue} off the render thread. Platforms without one leave the game to drain the
+ * queue at the end of each frame.
+ */
+public interface AudioDispatcher {
+    void start(AudioQueue queue);
 
-public class EnemySpawnWall {
-    public int spawnWallX;
-    public final List<EnemySpawn> enemySpawnList;
-    public boolean triggered = false;
-    public boolean destroyed = false;
+    /**
+     * Called by the render thread once a frame, after it queued that frame's commands.
+     */
+    void signal();
 
-    public EnemySpawnWall() {
-        enemySpawnList = new ArrayList<EnemySpawn>();
-    }
+    /**
+     * Stops draining and waits for the current batch to finish.
+     */
+    void stop();
 }
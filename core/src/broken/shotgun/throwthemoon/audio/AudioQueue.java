@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Hands sound commands from the render thread to whichever thread talks to the audio device.
+ * <p>
+ * A single producer/single consumer ring of command objects allocated up front: the producer fills the
+ * slot at the tail and publishes it by advancing the volatile tail, the consumer runs the slot at the
+ * head and frees it by advancing the volatile head. Neither side locks or allocates.
+ * <p>
+ * Voices are numbered by the producer and their device ids live only on the consumer side, so a voice
+ * can be stopped without waiting for {@link Sound#play(float, float, float)} to return. When the ring
+ * runs full, commands are refused and counted instead of blocking the frame. Plays are refused while
+ * fewer slots than voices are left, so that stopping every voice always fits.
+ */
+public class AudioQueue {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final byte PLAY = 0;
+    private static final byte STOP = 1;
+
+    private final Command[] commands;
+    private final int mask;
+    private final long[] voiceIds;
+    private volatile int head = 0;
+    private volatile int tail = 0;
+
+    private int peakBacklog = 0;
+    private int refusedCount = 0;
+    private volatile int failedCount = 0;
+
+    /**
+     * @param capacity commands the ring holds, rounded up to a power of two and to more than the voices
+     * @param voiceCount voices the producer numbers from 0
+     */
+    public AudioQueue(int capacity, int voiceCount) {
+        int size = MathUtils.nextPowerOfTwo(Math.max(capacity, voiceCount * 2));
+        commands = new Command[size];
+        for(int i = 0; i < size; ++i) {
+            commands[i] = new Command();
+        }
+        mask = size - 1;
+        voiceIds = new long[voiceCount];
+        for(int i = 0; i < voiceCount; ++i) {
+            voiceIds[i] = -1;
+        }
+    }
+
+    /**
+     * Producer only.
+     * @return false if the play was refused to keep room for stops
+     */
+    public boolean play(Sound sound, int voice, float volume, float pitch, float pan) {
+        if(freeSlots() <= voiceIds.length) {
+            refusedCount++;
+            return false;
+        }
+        Command command = commands[tail & mask];
+        command.type = PLAY;
+        command.sound = sound;
+        command.voice = voice;
+        command.volume = volume;
+        command.pitch = pitch;
+        command.pan = pan;
+        publish();
+        return true;
+    }
+
+    /**
+     * Producer only.
+     * @return false if the ring is full, in which case the voice plays out
+     */
+    public boolean stop(Sound sound, int voice) {
+        if(freeSlots() == 0) {
+            refusedCount++;
+            return false;
+        }
+        Command command = commands[tail & mask];
+        command.type = STOP;
+        command.sound = sound;
+        command.voice = voice;
+        publish();
+        return true;
+    }
+
+    /**
+     * Producer only.
+     * @return true if a play would be taken even after stopping a voice to make way for it
+     */
+    public boolean hasRoomForPlay() {
+        return freeSlots() > voiceIds.length + 1;
+    }
+
+    private int freeSlots() {
+        return commands.length - (tail - head);
+    }
+
+    private void publish() {
+        int next = tail + 1;
+        tail = next;
+        peakBacklog = Math.max(peakBacklog, next - head);
+    }
+
+    /**
+     * Consumer only: runs every published command.
+     * @return number of commands run
+     */
+    public int drain() {
+        int start = head;
+        int end = tail;
+        for(int i = start; i != end; ++i) {
+            Command command = commands[i & mask];
+            try {
+                run(command);
+            }
+            finally {
+                command.sound = null;
+                head = i + 1;
+            }
+        }
+        return end - start;
+    }
+
+    private void run(Command command) {
+        if(command.type == PLAY) {
+            long id = command.sound.play(command.volume, command.pitch, command.pan);
+            voiceIds[command.voice] = id;
+            if(id == -1) failedCount++;
+        }
+        else if(voiceIds[command.voice] != -1) {
+            command.sound.stop(voiceIds[command.voice]);
+            voiceIds[command.voice] = -1;
+        }
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public int getVoiceCount() {
+        return voiceIds.length;
+    }
+
+    public int getCapacity() {
+        return commands.length;
+    }
+
+    /**
+     * @return most commands waiting at once, as seen by the producer
+     */
+    public int getPeakBacklog() {
+        return peakBacklog;
+    }
+
+    /**
+     * @return commands the producer couldn't queue
+     */
+    public int getRefusedCount() {
+        return refusedCount;
+    }
+
+    /**
+     * @return plays the audio device turned down
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    private static class Command {
+        byte type;
+        Sound sound;
+        int voice;
+        float volume;
+        float pitch;
+        float pan;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.audio;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Daemon thread that drains the audio queue whenever the render thread signals the end of a frame, and
+ * sleeps without waking while the queue stays empty. A signal sent between the emptiness check and
+ * parking is not lost: the unpark leaves a permit the next park consumes at once.
+ * <p>
+ * Uses threads, so it is left out of the web build.
+ */
+public class AudioThread implements AudioDispatcher, Runnable {
+    private Thread thread;
+    private AudioQueue queue;
+    private volatile boolean running;
+
+    @Override
+    public void start(AudioQueue queue) {
+        this.queue = queue;
+        running = true;
+        thread = new Thread(this, "Audio");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void signal() {
+        if(queue != null && !queue.isEmpty()) LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void stop() {
+        if(thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        while(running) {
+            drain();
+            if(running && queue.isEmpty()) LockSupport.park(this);
+        }
+        // commands queued right before stop, like the stops sent when the game is disposed, still run
+        drain();
+    }
+
+    private void drain() {
+        try {
+            queue.drain();
+        }
+        catch (RuntimeException e) {
+            Gdx.app.error("AudioThread", "Failed to run an audio command", e);
+        }
+    }
+}
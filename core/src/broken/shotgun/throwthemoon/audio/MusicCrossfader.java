@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.audio;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Hands playback from one track to another with an equal power crossfade, so the loudness stays even
+ * through the middle of the fade. Outlives screens, so it can keep fading while they are swapped.
+ */
+public class MusicCrossfader {
+    private Music from;
+    private Music to;
+    private float fromVolume;
+    private float toVolume;
+    private float duration;
+    private float time;
+
+    /**
+     * Starts the incoming track silent and fades it up to its current volume while the outgoing one
+     * fades out and stops. Finishes any crossfade still running first.
+     */
+    public void crossfade(Music from, Music to, float duration) {
+        finish();
+        this.from = from;
+        this.to = to;
+        this.fromVolume = from.getVolume();
+        this.toVolume = to.getVolume();
+        this.duration = duration;
+        this.time = 0f;
+
+        to.setVolume(0f);
+        if(!to.isPlaying()) to.play();
+    }
+
+    public void update(float delta) {
+        if(to == null) return;
+
+        time += delta;
+        float progress = Math.min(time / duration, 1f);
+        from.setVolume(fromVolume * MathUtils.cos(progress * MathUtils.PI / 2f));
+        to.setVolume(toVolume * MathUtils.sin(progress * MathUtils.PI / 2f));
+        if(progress >= 1f) finish();
+    }
+
+    /**
+     * Jumps to the end of the running crossfade: the outgoing track stops and both get their volume back.
+     */
+    public void finish() {
+        if(to == null) return;
+
+        from.stop();
+        from.setVolume(fromVolume);
+        to.setVolume(toVolume);
+        from = null;
+        to = null;
+    }
+
+    public boolean isFading() {
+        return to != null;
+    }
+}
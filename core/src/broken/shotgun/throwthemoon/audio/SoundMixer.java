@@ -0,0 +1,315 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.audio;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
+/**
+ * Plays sound effects within a fixed number of voices.
+ * <p>
+ * Requests are collected during the frame and started by {@link #update(float)}, so the same sound
+ * asked for several times in one frame plays once, at the loudest volume asked for. Each sound can have
+ * a channel with its own voice cap, priority and length. A sound over its cap replaces its own oldest
+ * voice. When every voice is busy, a new sound takes the oldest voice of the lowest priority at or
+ * below its own, or is dropped.
+ * <p>
+ * {@link Sound} doesn't report when a voice ends, so voices count as busy for the channel's length.
+ * <p>
+ * The mixer only decides; the plays and stops it settles on go through an {@link AudioQueue} to the
+ * thread that talks to the audio device. Plays the queue refuses count as dropped.
+ */
+public class SoundMixer implements SoundPlayer {
+    public static final int DEFAULT_MAX_VOICES = 16;
+    private static final float DEFAULT_DURATION = 1f;
+
+    private final AssetManager manager;
+    private final AudioQueue queue;
+    private final int maxVoices;
+    private final ObjectMap<AssetDescriptor<Sound>, Channel> channels;
+    private final Channel defaultChannel;
+    private final Array<Voice> voices;
+    private final Array<Request> pending;
+    private final Pool<Voice> voicePool;
+    private final Pool<Request> requestPool;
+    private float time = 0f;
+
+    private int peakVoices = 0;
+    private int playedCount = 0;
+    private int deduplicatedCount = 0;
+    private int stolenCount = 0;
+    private int droppedCount = 0;
+
+    /**
+     * @param queue where plays and stops go; its voice count is how many voices may play at once
+     */
+    public SoundMixer(AssetManager manager, AudioQueue queue) {
+        this.manager = manager;
+        this.queue = queue;
+        this.maxVoices = queue.getVoiceCount();
+        channels = new ObjectMap<AssetDescriptor<Sound>, Channel>();
+        defaultChannel = new Channel(maxVoices, 0, DEFAULT_DURATION);
+        voices = new Array<Voice>(false, maxVoices);
+        pending = new Array<Request>(false, maxVoices);
+        voicePool = new Pool<Voice>(maxVoices) {
+            private int nextSlot = 0;
+
+            @Override
+            protected Voice newObject() {
+                // at most maxVoices are ever out at once, so the pool never numbers more than that
+                return new Voice(nextSlot++);
+            }
+        };
+        requestPool = new Pool<Request>(maxVoices) {
+            @Override
+            protected Request newObject() {
+                return new Request();
+            }
+        };
+    }
+
+    /**
+     * @param maxVoices voices the sound may use at once
+     * @param priority higher priorities take voices from lower ones when all are busy
+     * @param duration length of the sound in seconds at normal pitch
+     */
+    public void setChannel(AssetDescriptor<Sound> sound, int maxVoices, int priority, float duration) {
+        channels.put(sound, new Channel(maxVoices, priority, duration));
+    }
+
+    @Override
+    public void play(AssetDescriptor<Sound> sound, float volume, float pitch, float pan) {
+        for(int i = 0; i < pending.size; ++i) {
+            Request request = pending.get(i);
+            if(request.sound == sound) {
+                if(volume > request.volume) request.set(sound, volume, pitch, pan);
+                deduplicatedCount++;
+                return;
+            }
+        }
+
+        Request request = requestPool.obtain();
+        request.set(sound, volume, pitch, pan);
+        pending.add(request);
+    }
+
+    /**
+     * Retires voices that finished and starts this frame's requests, highest priority first.
+     */
+    public void update(float delta) {
+        time += delta;
+        for(int i = voices.size - 1; i >= 0; --i) {
+            Voice voice = voices.get(i);
+            if(time >= voice.endTime) release(i);
+        }
+
+        while(pending.size > 0) {
+            int next = 0;
+            for(int i = 1; i < pending.size; ++i) {
+                if(channel(pending.get(i).sound).priority > channel(pending.get(next).sound).priority) next = i;
+            }
+            Request request = pending.removeIndex(next);
+            start(request);
+            requestPool.free(request);
+        }
+    }
+
+    private void start(Request request) {
+        if(!queue.hasRoomForPlay()) {
+            droppedCount++;
+            return;
+        }
+
+        Channel channel = channel(request.sound);
+        if(channel.active >= channel.maxVoices) {
+            steal(oldestVoice(request.sound));
+        }
+        else if(voices.size >= maxVoices) {
+            int victim = weakestVoice(channel.priority);
+            if(victim == -1) {
+                droppedCount++;
+                return;
+            }
+            steal(victim);
+        }
+
+        Voice voice = voicePool.obtain();
+        if(!queue.play(manager.get(request.sound), voice.slot, request.volume, request.pitch, request.pan)) {
+            voicePool.free(voice);
+            droppedCount++;
+            return;
+        }
+
+        voice.sound = request.sound;
+        voice.channel = channel;
+        voice.startTime = time;
+        voice.endTime = time + channel.duration / request.pitch;
+        voices.add(voice);
+        channel.active++;
+        playedCount++;
+        peakVoices = Math.max(peakVoices, voices.size);
+    }
+
+    private int oldestVoice(AssetDescriptor<Sound> sound) {
+        int oldest = -1;
+        for(int i = 0; i < voices.size; ++i) {
+            Voice voice = voices.get(i);
+            if(voice.sound == sound && (oldest == -1 || voice.startTime < voices.get(oldest).startTime)) oldest = i;
+        }
+        return oldest;
+    }
+
+    /*
+     * The oldest voice among those with the lowest priority, if that priority isn't above the given one.
+     */
+    private int weakestVoice(int priority) {
+        int weakest = -1;
+        for(int i = 0; i < voices.size; ++i) {
+            Voice voice = voices.get(i);
+            if(voice.channel.priority > priority) continue;
+            if(weakest == -1) {
+                weakest = i;
+                continue;
+            }
+            Voice current = voices.get(weakest);
+            if(voice.channel.priority < current.channel.priority ||
+                    (voice.channel.priority == current.channel.priority && voice.startTime < current.startTime)) {
+                weakest = i;
+            }
+        }
+        return weakest;
+    }
+
+    private void steal(int index) {
+        Voice voice = voices.get(index);
+        queue.stop(manager.get(voice.sound), voice.slot);
+        release(index);
+        stolenCount++;
+    }
+
+    private void release(int index) {
+        Voice voice = voices.removeIndex(index);
+        voice.channel.active--;
+        voicePool.free(voice);
+    }
+
+    private Channel channel(AssetDescriptor<Sound> sound) {
+        return channels.get(sound, defaultChannel);
+    }
+
+    /**
+     * Stops every voice and forgets this frame's requests.
+     */
+    public void stopAll() {
+        while(voices.size > 0) {
+            Voice voice = voices.peek();
+            queue.stop(manager.get(voice.sound), voice.slot);
+            release(voices.size - 1);
+        }
+        requestPool.freeAll(pending);
+        pending.clear();
+    }
+
+    public int getActiveVoices() {
+        return voices.size;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    public int getPeakVoices() {
+        return peakVoices;
+    }
+
+    public int getPlayedCount() {
+        return playedCount;
+    }
+
+    /**
+     * @return requests merged into another request for the same sound in the same frame
+     */
+    public int getDeduplicatedCount() {
+        return deduplicatedCount;
+    }
+
+    /**
+     * @return voices cut short to make room for another sound
+     */
+    public int getStolenCount() {
+        return stolenCount;
+    }
+
+    /**
+     * @return requests that found no voice they were allowed to take
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    private static class Channel {
+        final int maxVoices;
+        final int priority;
+        final float duration;
+        int active;
+
+        Channel(int maxVoices, int priority, float duration) {
+            this.maxVoices = maxVoices;
+            this.priority = priority;
+            this.duration = duration;
+        }
+    }
+
+    private static class Voice {
+        final int slot;
+        AssetDescriptor<Sound> sound;
+        Channel channel;
+        float startTime;
+        float endTime;
+
+        Voice(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static class Request {
+        AssetDescriptor<Sound> sound;
+        float volume;
+        float pitch;
+        float pan;
+
+        void set(AssetDescriptor<Sound> sound, float volume, float pitch, float pan) {
+            this.sound = sound;
+            this.volume = volume;
+            this.pitch = pitch;
+            this.pan = pan;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Debug text overlay that does not allocate once warmed up.
+ * <p>
+ * Each frame the caller rebuilds its lines between {@link #begin()} and {@link #end()} using the
+ * primitive appenders on {@link Line}. Lines live in reusable char buffers, and a line is only laid out
+ * again when its text differs from what was laid out last time, so static lines cost nothing to draw.
+ */
+public class DebugHud {
+    private final BitmapFont font;
+    private final Array<Line> lines;
+    private int lineCount;
+
+    public static class Line {
+        private final StringBuilder text;
+        private final StringBuilder laidOut;
+        private final GlyphLayout layout;
+
+        Line() {
+            text = new StringBuilder(64);
+            laidOut = new StringBuilder(64);
+            layout = new GlyphLayout();
+        }
+
+        public Line append(String value) {
+            text.append(value);
+            return this;
+        }
+
+        public Line append(char value) {
+            text.append(value);
+            return this;
+        }
+
+        public Line append(int value) {
+            if(value < 0) {
+                text.append('-');
+                appendDigits(-(long) value);
+            }
+            else {
+                appendDigits(value);
+            }
+            return this;
+        }
+
+        /**
+         * Appends the value rounded to a fixed number of decimals, without going through Float.toString.
+         */
+        public Line append(float value, int decimals) {
+            if(Float.isNaN(value) || Float.isInfinite(value)) {
+                text.append(Float.isNaN(value) ? "NaN" : value > 0 ? "Inf" : "-Inf");
+                return this;
+            }
+
+            long scale = 1;
+            for(int i = 0; i < decimals; i++) scale *= 10;
+            long scaled = Math.round((double) value * scale);
+            if(scaled < 0) {
+                text.append('-');
+                scaled = -scaled;
+            }
+
+            appendDigits(scaled / scale);
+            if(decimals > 0) {
+                text.append('.');
+                long fraction = scaled % scale;
+                for(long digit = scale / 10; digit > 0; digit /= 10) {
+                    text.append((char) ('0' + (fraction / digit) % 10));
+                }
+            }
+            return this;
+        }
+
+        private void appendDigits(long value) {
+            long digit = 1;
+            while(value / digit >= 10) digit *= 10;
+            for(; digit > 0; digit /= 10) {
+                text.append((char) ('0' + (value / digit) % 10));
+            }
+        }
+
+        private boolean changed() {
+            if(text.length != laidOut.length) return true;
+            for(int i = 0; i < text.length; i++) {
+                if(text.chars[i] != laidOut.chars[i]) return true;
+            }
+            return false;
+        }
+    }
+
+    public DebugHud(BitmapFont font) {
+        this.font = font;
+        this.lines = new Array<Line>();
+    }
+
+    public void begin() {
+        lineCount = 0;
+    }
+
+    /**
+     * @return the next empty line of this frame
+     */
+    public Line line() {
+        if(lineCount == lines.size) lines.add(new Line());
+        Line line = lines.get(lineCount++);
+        line.text.setLength(0);
+        return line;
+    }
+
+    /**
+     * Lays out only the lines whose text changed since they were last laid out.
+     */
+    public void end() {
+        for(int i = 0; i < lineCount; i++) {
+            Line line = lines.get(i);
+            if(line.changed()) {
+                line.laidOut.setLength(0);
+                line.laidOut.append(line.text);
+                line.layout.setText(font, line.laidOut);
+            }
+        }
+    }
+
+    /**
+     * Draws the lines laid out by the last {@link #end()} downwards from the given top left corner.
+     */
+    public void draw(Batch batch, float x, float y) {
+        float lineHeight = font.getLineHeight();
+        for(int i = 0; i < lineCount; i++) {
+            font.draw(batch, lines.get(i).layout, x, y - i * lineHeight);
+        }
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+}
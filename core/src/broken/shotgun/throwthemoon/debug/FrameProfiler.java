@@ -0,0 +1,234 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Times named phases of a frame and keeps a nanosecond histogram per phase.
+ * <p>
+ * A phase may be entered several times in a frame (one per actor of a type, or one per shape pass);
+ * the time is summed and recorded once at {@link #endFrame()}. Phases can nest as long as a phase does
+ * not nest inside itself. While disabled every call returns immediately without reading the clock.
+ */
+public class FrameProfiler {
+    public static final int FRAME = 0;
+
+    private final Array<Histogram> phases;
+    private final ObjectIntMap<Class<?>> actorPhases;
+    private long[] started;
+    private long[] accumulated;
+    private boolean[] touched;
+    private boolean enabled;
+
+    /**
+     * Log-linear histogram: every power of two is split into {@link #SUB_BUCKETS} linear buckets, so
+     * any recorded value is known to within 1/8th of its magnitude.
+     */
+    public static class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+        public final String name;
+        private final long[] counts;
+        private long count;
+        private long total;
+        private long max;
+
+        public Histogram(String name) {
+            this.name = name;
+            this.counts = new long[BUCKETS];
+        }
+
+        public void record(long nanos) {
+            if(nanos < 0) nanos = 0;
+            counts[bucketOf(nanos)]++;
+            count++;
+            total += nanos;
+            if(nanos > max) max = nanos;
+        }
+
+        /**
+         * @param percentile between 0 and 1
+         * @return upper bound of the bucket holding the percentile, in nanoseconds
+         */
+        public long getPercentile(float percentile) {
+            if(count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if(seen >= rank) return Math.min(upperBoundOf(i), max);
+            }
+            return max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return count == 0 ? 0 : total / count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public void reset() {
+            for(int i = 0; i < counts.length; i++) counts[i] = 0;
+            count = 0;
+            total = 0;
+            max = 0;
+        }
+
+        private static int bucketOf(long value) {
+            if(value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int bucket) {
+            if(bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long sub = bucket % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+    }
+
+    public FrameProfiler() {
+        phases = new Array<Histogram>();
+        actorPhases = new ObjectIntMap<Class<?>>();
+        started = new long[8];
+        accumulated = new long[8];
+        touched = new boolean[8];
+        registerPhase("frame");
+    }
+
+    /**
+     * @return id to pass to {@link #begin(int)} and {@link #end(int)}
+     */
+    public int registerPhase(String name) {
+        phases.add(new Histogram(name));
+        if(phases.size > started.length) {
+            int capacity = phases.size * 2;
+            long[] newStarted = new long[capacity];
+            long[] newAccumulated = new long[capacity];
+            boolean[] newTouched = new boolean[capacity];
+            System.arraycopy(started, 0, newStarted, 0, started.length);
+            System.arraycopy(accumulated, 0, newAccumulated, 0, accumulated.length);
+            System.arraycopy(touched, 0, newTouched, 0, touched.length);
+            started = newStarted;
+            accumulated = newAccumulated;
+            touched = newTouched;
+        }
+        return phases.size - 1;
+    }
+
+    /**
+     * @return phase timing the act of every actor of the given type, registered on first use
+     */
+    public int getActorPhase(Class<?> type) {
+        int phase = actorPhases.get(type, -1);
+        if(phase == -1) {
+            phase = registerPhase("act " + ClassReflection.getSimpleName(type));
+            actorPhases.put(type, phase);
+        }
+        return phase;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        for(int i = 0; i < phases.size; i++) {
+            accumulated[i] = 0;
+            touched[i] = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin(int phase) {
+        if(!enabled) return;
+        started[phase] = TimeUtils.nanoTime();
+    }
+
+    public void end(int phase) {
+        if(!enabled) return;
+        accumulated[phase] += TimeUtils.nanoTime() - started[phase];
+        touched[phase] = true;
+    }
+
+    /**
+     * Records the time summed for each phase entered this frame.
+     */
+    public void endFrame() {
+        if(!enabled) return;
+        for(int i = 0; i < phases.size; i++) {
+            if(!touched[i]) continue;
+            phases.get(i).record(accumulated[i]);
+            accumulated[i] = 0;
+            touched[i] = false;
+        }
+    }
+
+    public Histogram getPhase(int phase) {
+        return phases.get(phase);
+    }
+
+    public int getPhaseCount() {
+        return phases.size;
+    }
+
+    public void reset() {
+        for(int i = 0; i < phases.size; i++) {
+            phases.get(i).reset();
+        }
+    }
+
+    /**
+     * Writes one row per phase that recorded at least one frame. Times are in nanoseconds.
+     */
+    public void exportCsv(FileHandle file) {
+        StringBuilder csv = new StringBuilder("phase,frames,mean_ns,p50_ns,p99_ns,max_ns\n");
+        for(int i = 0; i < phases.size; i++) {
+            Histogram phase = phases.get(i);
+            if(phase.getCount() == 0) continue;
+            csv.append(phase.name).append(',')
+                    .append(phase.getCount()).append(',')
+                    .append(phase.getMean()).append(',')
+                    .append(phase.getPercentile(0.5f)).append(',')
+                    .append(phase.getPercentile(0.99f)).append(',')
+                    .append(phase.getMax()).append('\n');
+        }
+        file.writeString(csv.toString(), false);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+/**
+ * Fixed size ring buffer of frame times drawn as a bar graph. Recording and drawing never allocate.
+ */
+public class FrameTimeGraph {
+    private static final float TARGET_FRAME_TIME = 1f / 60f;
+
+    private final float[] samples;
+    private int next;
+    private int count;
+
+    public FrameTimeGraph(int capacity) {
+        this.samples = new float[capacity];
+    }
+
+    public void record(float seconds) {
+        samples[next] = seconds;
+        next = (next + 1) % samples.length;
+        if(count < samples.length) count++;
+    }
+
+    /**
+     * @param age 0 for the latest sample
+     */
+    public float get(int age) {
+        int index = next - 1 - age;
+        if(index < 0) index += samples.length;
+        return samples[index];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getHighest() {
+        float highest = 0f;
+        for(int i = 0; i < count; i++) {
+            highest = Math.max(highest, samples[i]);
+        }
+        return highest;
+    }
+
+    /**
+     * Draws the oldest sample on the left. Bars are scaled so the graph height is two target frames,
+     * with the target frame time marked halfway up. Must be called between begin/end with a filled shape type.
+     */
+    public void draw(ShapeRenderer renderer, float x, float y, float width, float height) {
+        float scale = height / (2f * TARGET_FRAME_TIME);
+        float barWidth = width / samples.length;
+
+        renderer.setColor(0f, 0f, 0f, 0.5f);
+        renderer.rect(x, y, width, height);
+
+        for(int age = 0; age < count; age++) {
+            float sample = get(age);
+            renderer.setColor(sample > TARGET_FRAME_TIME ? Color.RED : Color.GREEN);
+            renderer.rect(x + width - (age + 1) * barWidth, y, barWidth, Math.min(sample * scale, height));
+        }
+
+        renderer.setColor(Color.WHITE);
+        renderer.rect(x, y + height / 2f, width, 1f);
+    }
+}
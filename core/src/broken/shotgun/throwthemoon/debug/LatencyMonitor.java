@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+/**
+ * Measures the time from an input event to the end of the first frame drawn after the world saw it.
+ * <p>
+ * Events are stamped with {@code Gdx.input.getCurrentEventTime()}, which uses the same monotonic clock
+ * as {@code System.nanoTime()} on the desktop and Android backends. When several events of a path
+ * arrive before the world samples input, the oldest one is measured, so the numbers are the worst case.
+ * The caller is expected to finish the GPU work before reporting the present, since the swap itself
+ * can't be observed from the game.
+ */
+public class LatencyMonitor {
+    public static final int TOUCH = 0;
+    public static final int KEYBOARD = 1;
+
+    private final FrameProfiler.Histogram[] paths;
+    private final long[] pending;
+    private final long[] inFlight;
+    private boolean enabled;
+
+    public LatencyMonitor() {
+        paths = new FrameProfiler.Histogram[] { new FrameProfiler.Histogram("touch"), new FrameProfiler.Histogram("keyboard") };
+        pending = new long[paths.length];
+        inFlight = new long[paths.length];
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        for(int i = 0; i < paths.length; i++) {
+            pending[i] = 0;
+            inFlight[i] = 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Notes an input event on the given path.
+     */
+    public void input(int path, long eventTime) {
+        if(!enabled || pending[path] != 0) return;
+        pending[path] = eventTime;
+    }
+
+    /**
+     * Marks the pending input as seen by the world; call right before the world steps.
+     */
+    public void sample() {
+        if(!enabled) return;
+        for(int i = 0; i < paths.length; i++) {
+            if(pending[i] != 0 && inFlight[i] == 0) {
+                inFlight[i] = pending[i];
+                pending[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Records the latency of every input sampled since the last present.
+     */
+    public void present(long now) {
+        if(!enabled) return;
+        for(int i = 0; i < paths.length; i++) {
+            if(inFlight[i] != 0) {
+                paths[i].record(now - inFlight[i]);
+                inFlight[i] = 0;
+            }
+        }
+    }
+
+    public FrameProfiler.Histogram getPath(int path) {
+        return paths[path];
+    }
+
+    public int getPathCount() {
+        return paths.length;
+    }
+
+    public void reset() {
+        for(int i = 0; i < paths.length; i++) paths[i].reset();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.WindowedMean;
+
+/**
+ * Per frame GPU side cost of each render pass: GL draw calls, texture binds, shader switches and
+ * vertices from {@link GLProfiler}, plus flushes and the largest batch for passes drawn with a
+ * {@link SpriteBatch}. Every counter keeps a rolling window so min/avg/max can be queried from code.
+ * <p>
+ * A pass may be begun and ended several times in a frame; its counters add up until {@link #endFrame()}.
+ * Nothing is recorded while disabled, and the GL profiler is only installed while enabled.
+ */
+public class RenderStats {
+    public static final int PASS_BACKGROUND = 0;
+    public static final int PASS_STAGE = 1;
+    public static final int PASS_SHAPES = 2;
+    public static final int PASS_DEBUG_SHAPES = 3;
+    public static final int PASS_UI = 4;
+    private static final String[] PASS_NAMES = { "Background cache", "Stage batch", "Shapes", "Debug shapes", "UI batch" };
+
+    private static final int DEFAULT_WINDOW = 60;
+
+    public static class Pass {
+        public final String name;
+        public final WindowedMean drawCalls;
+        public final WindowedMean textureBindings;
+        public final WindowedMean shaderSwitches;
+        public final WindowedMean vertices;
+        public final WindowedMean flushes;
+        public final WindowedMean maxSpritesInBatch;
+
+        private int frameDrawCalls;
+        private int frameTextureBindings;
+        private int frameShaderSwitches;
+        private float frameVertices;
+        private int frameFlushes;
+        private int frameMaxSprites;
+
+        private int startDrawCalls;
+        private int startTextureBindings;
+        private int startShaderSwitches;
+        private float startVertices;
+
+        Pass(String name, int window) {
+            this.name = name;
+            this.drawCalls = new WindowedMean(window);
+            this.textureBindings = new WindowedMean(window);
+            this.shaderSwitches = new WindowedMean(window);
+            this.vertices = new WindowedMean(window);
+            this.flushes = new WindowedMean(window);
+            this.maxSpritesInBatch = new WindowedMean(window);
+        }
+
+        private void commit() {
+            drawCalls.addValue(frameDrawCalls);
+            textureBindings.addValue(frameTextureBindings);
+            shaderSwitches.addValue(frameShaderSwitches);
+            vertices.addValue(frameVertices);
+            flushes.addValue(frameFlushes);
+            maxSpritesInBatch.addValue(frameMaxSprites);
+
+            frameDrawCalls = 0;
+            frameTextureBindings = 0;
+            frameShaderSwitches = 0;
+            frameVertices = 0;
+            frameFlushes = 0;
+            frameMaxSprites = 0;
+        }
+    }
+
+    private final Pass[] passes;
+    private boolean enabled;
+
+    public RenderStats() {
+        this(DEFAULT_WINDOW);
+    }
+
+    public RenderStats(int window) {
+        passes = new Pass[PASS_NAMES.length];
+        for(int i = 0; i < passes.length; i++) {
+            passes[i] = new Pass(PASS_NAMES[i], window);
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        if(this.enabled == enabled) return;
+        this.enabled = enabled;
+
+        if(enabled) {
+            GLProfiler.enable();
+            GLProfiler.reset();
+        }
+        else {
+            GLProfiler.disable();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void beginPass(int pass) {
+        if(!enabled) return;
+        Pass p = passes[pass];
+        p.startDrawCalls = GLProfiler.drawCalls;
+        p.startTextureBindings = GLProfiler.textureBindings;
+        p.startShaderSwitches = GLProfiler.shaderSwitches;
+        p.startVertices = GLProfiler.vertexCount.total;
+    }
+
+    public void endPass(int pass) {
+        if(!enabled) return;
+        Pass p = passes[pass];
+        p.frameDrawCalls += GLProfiler.drawCalls - p.startDrawCalls;
+        p.frameTextureBindings += GLProfiler.textureBindings - p.startTextureBindings;
+        p.frameShaderSwitches += GLProfiler.shaderSwitches - p.startShaderSwitches;
+        p.frameVertices += GLProfiler.vertexCount.total - p.startVertices;
+    }
+
+    /**
+     * Ends a pass drawn with the given batch, which must already have been ended. The batch's
+     * {@link SpriteBatch#maxSpritesInBatch} is reset so the next frame reports its own peak.
+     */
+    public void endPass(int pass, SpriteBatch batch) {
+        if(!enabled) return;
+        endPass(pass);
+        Pass p = passes[pass];
+        p.frameFlushes += batch.renderCalls;
+        p.frameMaxSprites = Math.max(p.frameMaxSprites, batch.maxSpritesInBatch);
+        batch.maxSpritesInBatch = 0;
+    }
+
+    public void endFrame() {
+        if(!enabled) return;
+        for(int i = 0; i < passes.length; i++) {
+            passes[i].commit();
+        }
+        GLProfiler.reset();
+    }
+
+    public Pass getPass(int pass) {
+        return passes[pass];
+    }
+
+    public int getPassCount() {
+        return passes.length;
+    }
+}
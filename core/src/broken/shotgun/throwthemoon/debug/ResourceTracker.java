@@ -0,0 +1,270 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Counts live native resources by type and by origin, and estimates the video memory their textures
+ * hold.
+ * <p>
+ * Resources loaded through the {@link AssetManager} are found on their own, under the origin
+ * {@value #ASSETS_ORIGIN}; everything else is registered with {@link #track(Object, String)} where it
+ * is created and {@link #untrack(Object)} where it is disposed. {@link #checkpoint(String)} recounts and
+ * compares against the last checkpoint with the same label, so a type whose count keeps climbing over
+ * repeated level resets or screen loops is reported as growth.
+ */
+public class ResourceTracker {
+    public static final String ASSETS_ORIGIN = "assets";
+
+    private final AssetManager manager;
+    private final ObjectMap<Object, String> tracked;
+    private final ObjectIntMap<Class<?>> counts;
+    private final ObjectMap<Class<?>, ObjectIntMap<String>> originCounts;
+    private final ObjectMap<String, ObjectIntMap<Class<?>>> checkpoints;
+    private final Array<String> growth;
+    private final ObjectSet<Texture> textures;
+    private final ObjectSet<Texture> heldTextures;
+    private long textureBytes;
+
+    public ResourceTracker(AssetManager manager) {
+        this.manager = manager;
+        tracked = new ObjectMap<Object, String>();
+        counts = new ObjectIntMap<Class<?>>();
+        originCounts = new ObjectMap<Class<?>, ObjectIntMap<String>>();
+        checkpoints = new ObjectMap<String, ObjectIntMap<Class<?>>>();
+        growth = new Array<String>();
+        textures = new ObjectSet<Texture>();
+        heldTextures = new ObjectSet<Texture>();
+    }
+
+    /**
+     * @param origin who created the resource and is expected to dispose it
+     * @return the resource, for tracking it where it is created
+     */
+    public <T> T track(T resource, String origin) {
+        tracked.put(resource, origin);
+        return resource;
+    }
+
+    public void untrack(Object resource) {
+        tracked.remove(resource);
+    }
+
+    /**
+     * Recounts every tracked and loaded resource.
+     */
+    public void update() {
+        counts.clear();
+        for(ObjectIntMap<String> origins : originCounts.values()) {
+            origins.clear();
+        }
+        textures.clear();
+
+        for(ObjectMap.Entry<Object, String> entry : tracked.entries()) {
+            count(entry.key, entry.value);
+        }
+        Array<String> names = manager.getAssetNames();
+        for(int i = 0; i < names.size; i++) {
+            count(manager.get(names.get(i)), ASSETS_ORIGIN);
+        }
+
+        textureBytes = 0;
+        for(Texture texture : textures) {
+            textureBytes += estimateBytes(texture);
+        }
+    }
+
+    private void count(Object resource, String origin) {
+        Class<?> type = typeOf(resource);
+        counts.getAndIncrement(type, 0, 1);
+        ObjectIntMap<String> origins = originCounts.get(type);
+        if(origins == null) {
+            origins = new ObjectIntMap<String>();
+            originCounts.put(type, origins);
+        }
+        origins.getAndIncrement(origin, 0, 1);
+
+        collectTextures(resource, textures);
+    }
+
+    private static void collectTextures(Object resource, ObjectSet<Texture> into) {
+        if(resource instanceof Texture) {
+            into.add((Texture) resource);
+        }
+        else if(resource instanceof TextureAtlas) {
+            for(Texture texture : ((TextureAtlas) resource).getTextures()) {
+                into.add(texture);
+            }
+        }
+        else if(resource instanceof BitmapFont) {
+            Array<TextureRegion> regions = ((BitmapFont) resource).getRegions();
+            for(int i = 0; i < regions.size; i++) {
+                into.add(regions.get(i).getTexture());
+            }
+        }
+    }
+
+    /**
+     * Estimates the video memory behind some of the loaded assets, e.g. the ones a screen holds. A texture
+     * shared by several of the assets is counted once; assets that aren't loaded yet count nothing.
+     */
+    public long getTextureBytes(Array<AssetDescriptor<?>> assets) {
+        heldTextures.clear();
+        for(int i = 0; i < assets.size; i++) {
+            AssetDescriptor<?> asset = assets.get(i);
+            if(manager.isLoaded(asset.fileName, asset.type)) collectTextures(manager.get(asset), heldTextures);
+        }
+
+        long bytes = 0;
+        for(Texture texture : heldTextures) {
+            bytes += estimateBytes(texture);
+        }
+        heldTextures.clear();
+        return bytes;
+    }
+
+    /*
+     * Backends implement sounds and music with their own classes, so those are counted by interface.
+     */
+    private static Class<?> typeOf(Object resource) {
+        if(resource instanceof Texture) return Texture.class;
+        if(resource instanceof TextureAtlas) return TextureAtlas.class;
+        if(resource instanceof Sound) return Sound.class;
+        if(resource instanceof Music) return Music.class;
+        if(resource instanceof SpriteBatch) return SpriteBatch.class;
+        if(resource instanceof ShapeRenderer) return ShapeRenderer.class;
+        if(resource instanceof BitmapFont) return BitmapFont.class;
+        return resource.getClass();
+    }
+
+    /**
+     * @return width x height x bytes per pixel, a third more with mipmaps
+     */
+    public static long estimateBytes(Texture texture) {
+        long bytes = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel(texture.getTextureData().getFormat());
+        return texture.getTextureData().useMipMaps() ? bytes * 4 / 3 : bytes;
+    }
+
+    private static int bytesPerPixel(Pixmap.Format format) {
+        if(format == null) return 4;
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Recounts and compares with the last checkpoint of the same label.
+     * @return the types that grew since then, also added to {@link #getGrowth()}
+     */
+    public Array<String> checkpoint(String label) {
+        update();
+
+        Array<String> grown = new Array<String>();
+        ObjectIntMap<Class<?>> previous = checkpoints.get(label);
+        if(previous != null) {
+            for(ObjectIntMap.Entry<Class<?>> entry : counts.entries()) {
+                int before = previous.get(entry.key, 0);
+                if(entry.value <= before) continue;
+                String message = label + ": " + ClassReflection.getSimpleName(entry.key) + " " + before + " -> " + entry.value;
+                grown.add(message);
+                Gdx.app.error("ResourceTracker", "Resources grew at " + message);
+            }
+        }
+        else {
+            previous = new ObjectIntMap<Class<?>>();
+            checkpoints.put(label, previous);
+        }
+
+        previous.clear();
+        previous.putAll(counts);
+        growth.addAll(grown);
+        return grown;
+    }
+
+    /**
+     * @param type what the resource is counted as: {@link Texture}, {@link TextureAtlas}, {@link Sound},
+     * {@link Music}, {@link SpriteBatch}, {@link ShapeRenderer}, {@link BitmapFont}, or its own class
+     * @return live resources of the type as of the last update
+     */
+    public int getCount(Class<?> type) {
+        return counts.get(type, 0);
+    }
+
+    public int getCount(Class<?> type, String origin) {
+        ObjectIntMap<String> origins = originCounts.get(type);
+        return origins == null ? 0 : origins.get(origin, 0);
+    }
+
+    public ObjectIntMap<Class<?>> getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return estimated bytes held by the distinct textures of every counted resource
+     */
+    public long getTextureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * @return every texture the GL context would reload after a loss, tracked or not
+     */
+    public int getManagedTextureCount() {
+        return Texture.getNumManagedTextures();
+    }
+
+    /**
+     * @return every growth any checkpoint reported
+     */
+    public Array<String> getGrowth() {
+        return growth;
+    }
+}
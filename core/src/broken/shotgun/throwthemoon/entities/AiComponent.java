@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import broken.shotgun.throwthemoon.ai.Agent;
+import broken.shotgun.throwthemoon.ai.EnemyBrain;
+
+/**
+ * Lets an {@link EnemyBrain} steer the entity. The brain stays with the component through the pool, and
+ * the position and health it reads are the entity's own components, set when it spawns.
+ */
+public class AiComponent extends Component implements Pool.Poolable, Agent {
+    public final EnemyBrain brain = new EnemyBrain(this);
+    public PositionComponent position;
+    public HealthComponent health;
+    public float velocityX;
+    public float velocityY;
+
+    @Override
+    public float getAgentX() {
+        return position.x + position.width / 2;
+    }
+
+    @Override
+    public float getAgentY() {
+        return position.y;
+    }
+
+    @Override
+    public void steer(float velocityX, float velocityY) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    @Override
+    public boolean isStunned() {
+        return health.spawnTime < HealthSystem.FADE_IN_DURATION || health.hurtTime >= 0f || health.isDying();
+    }
+
+    @Override
+    public void reset() {
+        brain.reset();
+        position = null;
+        health = null;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Moves every collision area along with its entity and keeps the areas indexed in the grid.
+ */
+public class CollisionSystem extends IteratingSystem {
+    private final ComponentMapper<PositionComponent> positions = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<CollisionComponent> collisions = ComponentMapper.getFor(CollisionComponent.class);
+
+    private final EntityGrid grid;
+
+    @SuppressWarnings("unchecked")
+    public CollisionSystem(int priority, EntityGrid grid) {
+        super(Family.getFor(PositionComponent.class, CollisionComponent.class), priority);
+        this.grid = grid;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = positions.get(entity);
+        CollisionComponent collision = collisions.get(entity);
+        collision.area.setPosition(position.x + collision.offsetX, position.y + collision.offsetY);
+        grid.update(entity);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+
+import broken.shotgun.throwthemoon.ai.AiScheduler;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+
+/**
+ * Enemies as Ashley entities: plain component data in pooled arrays, updated by one system per concern
+ * instead of an actor with its own actions, color and transform each. Behaves like
+ * {@link broken.shotgun.throwthemoon.actors.Enemy} and is meant for waves far bigger than the stage
+ * could carry as actors.
+ */
+public class EnemyEntities {
+    private static final int MAX_HEALTH = 5;
+    public static final int FRAME_WIDTH = 256;
+    public static final int FRAME_HEIGHT = 256;
+    private static final int COLLISION_INSET = 50;
+    private static final int POOL_MAX = 4096;
+    private static final float GRID_CELL_SIZE = 256f;
+
+    private final PooledEngine engine;
+    private final ImmutableArray<Entity> enemies;
+    private final Array<Entity> removed;
+    private final EntityGrid grid;
+    private final Rectangle hitArea;
+    private final Animation idle;
+    private final SoundPlayer sounds;
+    private final AiScheduler scheduler;
+    private Actor target;
+
+    private final ComponentMapper<PositionComponent> positions = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<CollisionComponent> collisions = ComponentMapper.getFor(CollisionComponent.class);
+    private final ComponentMapper<AnimationComponent> animations = ComponentMapper.getFor(AnimationComponent.class);
+    private final ComponentMapper<HealthComponent> healths = ComponentMapper.getFor(HealthComponent.class);
+    private final ComponentMapper<AiComponent> ais = ComponentMapper.getFor(AiComponent.class);
+
+    /**
+     * @param scheduler gets the brain of every spawned enemy, and loses it again when the enemy is removed
+     */
+    @SuppressWarnings("unchecked")
+    public EnemyEntities(AnimationLibrary library, SoundPlayer sounds, AiScheduler scheduler, int initialCapacity) {
+        this.engine = new PooledEngine(initialCapacity, POOL_MAX, initialCapacity, POOL_MAX);
+        this.removed = new Array<Entity>();
+        this.grid = new EntityGrid(GRID_CELL_SIZE);
+        this.hitArea = new Rectangle();
+        this.idle = library.get(AnimationLibrary.SHEET_ENEMY, AnimationLibrary.CLIP_IDLE);
+        this.sounds = sounds;
+        this.scheduler = scheduler;
+
+        engine.addSystem(new HealthSystem(0, removed));
+        engine.addSystem(new MovementSystem(1));
+        engine.addSystem(new CollisionSystem(2, grid));
+        engine.addSystem(new AnimationSystem(3));
+        enemies = engine.getEntitiesFor(Family.getFor(PositionComponent.class, CollisionComponent.class,
+                AnimationComponent.class, HealthComponent.class, AiComponent.class));
+    }
+
+    /**
+     * @param target what enemies spawned from now on walk up to
+     */
+    public void setTarget(Actor target) {
+        this.target = target;
+    }
+
+    /**
+     * Adds an enemy at the given position that fades in like a freshly spawned actor.
+     */
+    public Entity spawn(float x, float y) {
+        return spawn(x, y, 0f);
+    }
+
+    /**
+     * @param slotOffsetY how far above or below the target this enemy lines up
+     */
+    public Entity spawn(float x, float y, float slotOffsetY) {
+        Entity entity = engine.createEntity();
+
+        PositionComponent position = engine.createComponent(PositionComponent.class);
+        position.set(x, y);
+        position.width = FRAME_WIDTH;
+        position.height = FRAME_HEIGHT;
+        entity.add(position);
+
+        CollisionComponent collision = engine.createComponent(CollisionComponent.class);
+        collision.offsetX = COLLISION_INSET;
+        collision.area.set(x + COLLISION_INSET, y, FRAME_WIDTH - COLLISION_INSET * 2, FRAME_HEIGHT);
+        entity.add(collision);
+
+        AnimationComponent animation = engine.createComponent(AnimationComponent.class);
+        animation.animation = idle;
+        animation.frame = idle.getKeyFrame(0f);
+        animation.tint.a = 0f;
+        entity.add(animation);
+
+        HealthComponent health = engine.createComponent(HealthComponent.class);
+        health.health = MAX_HEALTH;
+        entity.add(health);
+
+        AiComponent ai = engine.createComponent(AiComponent.class);
+        ai.position = position;
+        ai.health = health;
+        ai.brain.setTarget(target, slotOffsetY);
+        entity.add(ai);
+        scheduler.add(ai.brain);
+
+        engine.addEntity(entity);
+        grid.update(entity);
+        return entity;
+    }
+
+    public void update(float delta) {
+        engine.update(delta);
+        for(int i = 0; i < removed.size; ++i) {
+            Entity entity = removed.get(i);
+            scheduler.remove(ais.get(entity).brain);
+            grid.remove(entity);
+            engine.removeEntity(entity);
+        }
+        removed.clear();
+    }
+
+    /**
+     * Remembers every enemy's position before the next step.
+     */
+    public void savePositions() {
+        for(int i = 0; i < enemies.size(); ++i) {
+            PositionComponent position = positions.get(enemies.get(i));
+            position.previousX = position.x;
+            position.previousY = position.y;
+        }
+    }
+
+    /**
+     * @return true if any enemy, dying ones included, touches the area
+     */
+    public boolean overlaps(Rectangle area) {
+        Array<Entity> nearby = grid.query(area);
+        for(int i = 0; i < nearby.size; ++i) {
+            if(collisions.get(nearby.get(i)).area.overlaps(area)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Hits the whole frame like an enemy actor does. The grid indexes the inset collision areas, so the
+     * query is widened by the inset to still find enemies touched near the edge of their frame.
+     * @return true if the point is on any enemy, dying ones included
+     */
+    public boolean hit(float x, float y) {
+        Array<Entity> nearby = grid.query(hitArea.set(x - COLLISION_INSET, y, COLLISION_INSET * 2, 1f));
+        for(int i = 0; i < nearby.size; ++i) {
+            PositionComponent position = positions.get(nearby.get(i));
+            if(x >= position.x && x < position.x + position.width && y >= position.y && y < position.y + position.height) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Damages every living enemy the area touches, knocking it away from the area.
+     * @return true if anything was hit
+     */
+    public boolean attack(Rectangle area) {
+        boolean hit = false;
+        Array<Entity> nearby = grid.query(area);
+        for(int i = 0; i < nearby.size; ++i) {
+            Entity entity = nearby.get(i);
+            HealthComponent health = healths.get(entity);
+            if(health.isDying() || !collisions.get(entity).area.overlaps(area)) continue;
+
+            PositionComponent position = positions.get(entity);
+            takeDamage(health, position, area.x < position.x + position.width / 2 ? 1 : -1);
+            hit = true;
+        }
+        return hit;
+    }
+
+    private void takeDamage(HealthComponent health, PositionComponent position, int direction) {
+        health.health--;
+
+        sounds.play(Assets.SFX_ENEMY_HIT, 1f, 1f, 0f);
+
+        if(health.health <= 0) {
+            health.dyingTime = 0f;
+            health.dyingFromAlpha = Math.min(health.spawnTime / HealthSystem.FADE_IN_DURATION, 1f);
+            return;
+        }
+
+        if(health.hurtTime < 0f) health.hurtFromX = position.x;
+        health.hurtTime = 0f;
+        health.hurtDirection = direction;
+    }
+
+    /**
+     * Draws the enemies inside the view, each the given fraction of the way from its previous position.
+     */
+    public void draw(Batch batch, float parentAlpha, float alpha, Rectangle view) {
+        for(int i = 0; i < enemies.size(); ++i) {
+            Entity entity = enemies.get(i);
+            PositionComponent position = positions.get(entity);
+            float x = position.previousX + (position.x - position.previousX) * alpha;
+            float y = position.previousY + (position.y - position.previousY) * alpha;
+            if(x > view.x + view.width || x + position.width < view.x || y > view.y + view.height || y + position.height < view.y) continue;
+
+            AnimationComponent animation = animations.get(entity);
+            Color tint = animation.tint;
+            batch.setColor(tint.r, tint.g, tint.b, tint.a * parentAlpha);
+            batch.draw(animation.frame, x, y, position.width, position.height);
+        }
+        batch.setColor(Color.WHITE);
+    }
+
+    public void drawDebug(ShapeRenderer shapes) {
+        shapes.set(ShapeRenderer.ShapeType.Line);
+        for(int i = 0; i < enemies.size(); ++i) {
+            Entity entity = enemies.get(i);
+            PositionComponent position = positions.get(entity);
+            Rectangle area = collisions.get(entity).area;
+            shapes.setColor(Color.GRAY);
+            shapes.rect(position.x, position.y, position.width, position.height);
+            shapes.setColor(Color.GREEN);
+            shapes.rect(area.x, area.y, area.width, area.height);
+        }
+    }
+
+    /**
+     * @return number of enemies alive or dying
+     */
+    public int size() {
+        return enemies.size();
+    }
+
+    public void clear() {
+        for(int i = 0; i < enemies.size(); ++i) {
+            scheduler.remove(ais.get(enemies.get(i)).brain);
+        }
+        removed.clear();
+        grid.clear();
+        engine.removeAllEntities();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Uniform grid broadphase over entity collision areas, built like
+ * {@link broken.shotgun.throwthemoon.stages.CollisionGrid} is for actors.
+ * <p>
+ * Every area is bucketed into the cells it touches and the cell range lives on its
+ * {@link CollisionComponent}, so an entity is only re-bucketed when its area crosses a cell boundary and
+ * a query only looks at the entities near the queried area.
+ */
+public class EntityGrid {
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final float cellSize;
+    private final LongMap<Array<Entity>> cells;
+    private final Array<Entity> results;
+    private final ComponentMapper<CollisionComponent> collisions = ComponentMapper.getFor(CollisionComponent.class);
+    private int queryStamp = 0;
+    private int size = 0;
+
+    public EntityGrid(float cellSize) {
+        this.cellSize = cellSize;
+        cells = new LongMap<Array<Entity>>();
+        results = new Array<Entity>();
+    }
+
+    /**
+     * Indexes the entity's collision area, or re-buckets it if it crossed a cell boundary since the last call.
+     */
+    public void update(Entity entity) {
+        CollisionComponent collision = collisions.get(entity);
+        Rectangle area = collision.area;
+        int minCellX = cell(area.x);
+        int minCellY = cell(area.y);
+        int maxCellX = cell(area.x + area.width);
+        int maxCellY = cell(area.y + area.height);
+
+        if(collision.indexed) {
+            if(minCellX == collision.minCellX && minCellY == collision.minCellY &&
+                    maxCellX == collision.maxCellX && maxCellY == collision.maxCellY) return;
+            removeFromCells(entity, collision);
+        }
+        else {
+            collision.indexed = true;
+            size++;
+        }
+
+        collision.minCellX = minCellX;
+        collision.minCellY = minCellY;
+        collision.maxCellX = maxCellX;
+        collision.maxCellY = maxCellY;
+        addToCells(entity, collision);
+    }
+
+    public void remove(Entity entity) {
+        CollisionComponent collision = collisions.get(entity);
+        if(collision == null || !collision.indexed) return;
+
+        removeFromCells(entity, collision);
+        collision.indexed = false;
+        size--;
+    }
+
+    public void clear() {
+        for(Array<Entity> cellEntities : cells.values()) {
+            for(int i = 0; i < cellEntities.size; ++i) {
+                collisions.get(cellEntities.get(i)).indexed = false;
+            }
+            cellEntities.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Collects every entity whose collision area shares a cell with the area. The returned array is reused
+     * by the next query.
+     */
+    public Array<Entity> query(Rectangle area) {
+        results.clear();
+        if(area.width <= 0 || area.height <= 0) return results;
+
+        queryStamp++;
+        int minCellX = cell(area.x);
+        int minCellY = cell(area.y);
+        int maxCellX = cell(area.x + area.width);
+        int maxCellY = cell(area.y + area.height);
+
+        for(int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+            for(int cellY = minCellY; cellY <= maxCellY; ++cellY) {
+                collect(cells.get(key(cellX, cellY)));
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void collect(Array<Entity> cellEntities) {
+        if(cellEntities == null) return;
+        for(int i = 0; i < cellEntities.size; ++i) {
+            Entity entity = cellEntities.get(i);
+            CollisionComponent collision = collisions.get(entity);
+            if(collision.queryStamp == queryStamp) continue;
+            collision.queryStamp = queryStamp;
+            results.add(entity);
+        }
+    }
+
+    private void addToCells(Entity entity, CollisionComponent collision) {
+        for(int cellX = collision.minCellX; cellX <= collision.maxCellX; ++cellX) {
+            for(int cellY = collision.minCellY; cellY <= collision.maxCellY; ++cellY) {
+                long key = key(cellX, cellY);
+                Array<Entity> cellEntities = cells.get(key);
+                if(cellEntities == null) {
+                    cellEntities = new Array<Entity>(false, INITIAL_CELL_CAPACITY);
+                    cells.put(key, cellEntities);
+                }
+                cellEntities.add(entity);
+            }
+        }
+    }
+
+    private void removeFromCells(Entity entity, CollisionComponent collision) {
+        for(int cellX = collision.minCellX; cellX <= collision.maxCellX; ++cellX) {
+            for(int cellY = collision.minCellY; cellY <= collision.maxCellY; ++cellY) {
+                Array<Entity> cellEntities = cells.get(key(cellX, cellY));
+                if(cellEntities != null) cellEntities.removeValue(entity, true);
+            }
+        }
+    }
+
+    private int cell(float coordinate) {
+        return MathUtils.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+}
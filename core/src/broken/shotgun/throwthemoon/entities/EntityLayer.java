@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+
+/**
+ * Lets {@link EnemyEntities} live in the stage: acting the layer updates the entity systems and drawing
+ * it draws the enemies in the view, so they share the world's step and sprite batch with the actors.
+ * Touching an enemy hits the layer itself, since entities have no actor of their own.
+ */
+public class EntityLayer extends Actor {
+    private final EnemyEntities enemies;
+    private final Rectangle view;
+    private float alpha = 1f;
+
+    public EntityLayer(EnemyEntities enemies) {
+        this.enemies = enemies;
+        this.view = new Rectangle();
+    }
+
+    public void setView(Rectangle view) {
+        this.view.set(view);
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        enemies.update(delta);
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        enemies.draw(batch, parentAlpha, alpha, view);
+    }
+
+    /**
+     * @return this layer if the point, in world coordinates, is on an enemy
+     */
+    @Override
+    public Actor hit(float x, float y, boolean touchable) {
+        if(touchable && getTouchable() != Touchable.enabled) return null;
+        return enemies.hit(x, y) ? this : null;
+    }
+
+    @Override
+    public void drawDebug(ShapeRenderer shapes) {
+        if(!getDebug()) return;
+        enemies.drawDebug(shapes);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Health and the timers of the reactions it drives: fading in, the knockback after a hit and fading out
+ * once dead. A negative timer means the reaction isn't running.
+ */
+public class HealthComponent extends Component implements Pool.Poolable {
+    public int health;
+    public float spawnTime;
+    public float hurtTime = -1f;
+    public int hurtDirection;
+    public float hurtFromX;
+    public float dyingTime = -1f;
+    public float dyingFromAlpha;
+
+    public boolean isDying() {
+        return dyingTime >= 0f;
+    }
+
+    @Override
+    public void reset() {
+        health = 0;
+        spawnTime = 0f;
+        hurtTime = -1f;
+        hurtDirection = 0;
+        hurtFromX = 0f;
+        dyingTime = -1f;
+        dyingFromAlpha = 0f;
+    }
+}
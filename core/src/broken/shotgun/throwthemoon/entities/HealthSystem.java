@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.entities;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Runs the reactions {@link HealthComponent} times, matching what the scene2d enemy does with actions:
+ * a half second fade in, a knockback that flashes black and springs back after each hit, and a fade
+ * out once dead, after which the entity is handed to the removal list.
+ */
+public class HealthSystem extends IteratingSystem {
+    static final float FADE_IN_DURATION = 0.5f;
+    static final float KNOCKBACK_DISTANCE = 20f;
+    static final float KNOCKBACK_DURATION = 0.3f;
+    static final float RETURN_DURATION = 0.1f;
+    static final float FLASH_DURATION = 0.15f;
+    static final float FADE_OUT_DURATION = 0.4f;
+
+    private final ComponentMapper<HealthComponent> healths = ComponentMapper.getFor(HealthComponent.class);
+    private final ComponentMapper<PositionComponent> positions = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<AnimationComponent> animations = ComponentMapper.getFor(AnimationComponent.class);
+    private final Array<Entity> removed;
+
+    /**
+     * @param removed receives the entities that finished dying
+     */
+    @SuppressWarnings("unchecked")
+    public HealthSystem(int priority, Array<Entity> removed) {
+        super(Family.getFor(HealthComponent.class, PositionComponent.class, AnimationComponent.class), priority);
+        this.removed = removed;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        HealthComponent health = healths.get(entity);
+        PositionComponent position = positions.get(entity);
+        Color tint = animations.get(entity).tint;
+
+        if(health.isDying()) {
+            health.dyingTime += deltaTime;
+            float progress = Math.min(health.dyingTime / FADE_OUT_DURATION, 1f);
+            tint.a = health.dyingFromAlpha * (1f - Interpolation.fade.apply(progress));
+            if(progress >= 1f) removed.add(entity);
+            return;
+        }
+
+        if(health.spawnTime < FADE_IN_DURATION) {
+            health.spawnTime += deltaTime;
+            tint.a = Math.min(health.spawnTime / FADE_IN_DURATION, 1f);
+        }
+
+        if(health.hurtTime >= 0f) {
+            health.hurtTime += deltaTime;
+            updateKnockback(health, position, tint);
+        }
+    }
+
+    private void updateKnockback(HealthComponent health, PositionComponent position, Color tint) {
+        float time = health.hurtTime;
+        float pushedX = health.hurtFromX + KNOCKBACK_DISTANCE * health.hurtDirection;
+        if(time < KNOCKBACK_DURATION) {
+            position.x = health.hurtFromX + (pushedX - health.hurtFromX) * Interpolation.circleOut.apply(time / KNOCKBACK_DURATION);
+        }
+        else if(time < KNOCKBACK_DURATION + RETURN_DURATION) {
+            position.x = pushedX + (health.hurtFromX - pushedX) * Interpolation.circleIn.apply((time - KNOCKBACK_DURATION) / RETURN_DURATION);
+        }
+        else {
+            position.x = health.hurtFromX;
+            health.hurtTime = -1f;
+        }
+
+        float shade = time < FLASH_DURATION ? 1f - time / FLASH_DURATION : Math.min((time - FLASH_DURATION) / FLASH_DURATION, 1f);
+        tint.r = tint.g = tint.b = shade;
+    }
+}
@@ -23,24 +23,191 @@
  */
 package broken.shotgun.throwthemoon.models;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
+/**
+ * Compiled level: spawn walls sorted by x in primitive arrays and spawns stored struct-of-arrays.
+ * Levels are shared through the asset manager, so they are read only; progress through the walls is
+ * kept by the {@code GameWorld} playing the level.
+ * <p>
+ * Levels are authored as json under {@code levels/} and compiled by the desktop {@code compileLevels}
+ * task into the big-endian layout below, which is read back with a single buffer read.
+ * <pre>
+ * int     magic
+ * short   version
+ * short   chapter
+ * int     wallCount
+ * int     spawnCount
+ * int[]   wallX          (wallCount, ascending)
+ * int[]   wallSpawnStart (wallCount + 1, index of the first spawn of each wall)
+ * short[] spawnEnemyId   (spawnCount)
+ * byte[]  spawnLocation  (spawnCount, {@link SpawnLocation} ordinal)
+ * </pre>
+ */
 public class Level {
-    public int chapter;
-    public final List<EnemySpawnWall> enemySpawnWallList;
+    public static final int MAGIC = 0x54544D4C; // "TTML"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final SpawnLocation[] LOCATIONS = SpawnLocation.values();
+
+    public final int chapter;
+
+    private final int[] wallX;
+    private final int[] wallSpawnStart;
+    private final short[] spawnEnemyId;
+    private final byte[] spawnLocation;
+
+    public Level(int chapter, int[] wallX, int[] wallSpawnStart, short[] spawnEnemyId, byte[] spawnLocation) {
+        this.chapter = chapter;
+        this.wallX = wallX;
+        this.wallSpawnStart = wallSpawnStart;
+        this.spawnEnemyId = spawnEnemyId;
+        this.spawnLocation = spawnLocation;
+    }
 
-    public Level() {
-        enemySpawnWallList = new ArrayList<EnemySpawnWall>();
+    public static Level load(FileHandle file) {
+        return fromBytes(file.readBytes(), file.path());
     }
-    
+
+    /**
+     * @param path where the data came from, for error messages
+     * @throws GdxRuntimeException if the data is not a complete compiled level of this version
+     */
+    public static Level fromBytes(byte[] data, String path) {
+        if(data.length < HEADER_SIZE) throw new GdxRuntimeException("Truncated level: " + path);
+        int offset = 0;
+        int magic = readInt(data, offset); offset += 4;
+        if(magic != MAGIC) throw new GdxRuntimeException("Not a compiled level: " + path);
+        int version = readShort(data, offset); offset += 2;
+        if(version != VERSION) throw new GdxRuntimeException("Unsupported level version " + version + ": " + path);
+        int chapter = readShort(data, offset); offset += 2;
+        int wallCount = readInt(data, offset); offset += 4;
+        int spawnCount = readInt(data, offset); offset += 4;
+        if(wallCount < 0 || spawnCount < 0) throw new GdxRuntimeException("Corrupt level counts: " + path);
+        // in longs so huge corrupt counts can't overflow past the check
+        long size = HEADER_SIZE + 4L * wallCount + 4L * (wallCount + 1) + 3L * spawnCount;
+        if(data.length < size) throw new GdxRuntimeException("Truncated level: " + path);
+
+        int[] wallX = new int[wallCount];
+        for(int i = 0; i < wallCount; ++i, offset += 4) {
+            wallX[i] = readInt(data, offset);
+            if(i > 0 && wallX[i] < wallX[i - 1]) throw new GdxRuntimeException("Walls out of order: " + path);
+        }
+
+        int[] wallSpawnStart = new int[wallCount + 1];
+        for(int i = 0; i <= wallCount; ++i, offset += 4) wallSpawnStart[i] = readInt(data, offset);
+
+        short[] spawnEnemyId = new short[spawnCount];
+        for(int i = 0; i < spawnCount; ++i, offset += 2) spawnEnemyId[i] = (short) readShort(data, offset);
+
+        for(int i = 0; i < wallCount; ++i) {
+            if(wallSpawnStart[i] < 0 || wallSpawnStart[i] > wallSpawnStart[i + 1] || wallSpawnStart[i + 1] > spawnCount) {
+                throw new GdxRuntimeException("Corrupt spawn range for wall " + i + ": " + path);
+            }
+        }
+
+        byte[] spawnLocation = new byte[spawnCount];
+        System.arraycopy(data, offset, spawnLocation, 0, spawnCount);
+        for(int i = 0; i < spawnCount; ++i) {
+            if(spawnLocation[i] < 0 || spawnLocation[i] >= LOCATIONS.length) {
+                throw new GdxRuntimeException("Unknown spawn location " + spawnLocation[i] + ": " + path);
+            }
+        }
+
+        return new Level(chapter, wallX, wallSpawnStart, spawnEnemyId, spawnLocation);
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16) |
+                ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+    }
+
+    private static int readShort(byte[] data, int offset) {
+        return (short) (((data[offset] & 0xff) << 8) | (data[offset + 1] & 0xff));
+    }
+
+    public int getWallCount() {
+        return wallX.length;
+    }
+
+    public int getWallX(int wall) {
+        return wallX[wall];
+    }
+
+    public int getSpawnStart(int wall) {
+        return wallSpawnStart[wall];
+    }
+
+    public int getSpawnEnd(int wall) {
+        return wallSpawnStart[wall + 1];
+    }
+
+    public int getSpawnEnemyId(int spawn) {
+        return spawnEnemyId[spawn];
+    }
+
+    public SpawnLocation getSpawnLocation(int spawn) {
+        return LOCATIONS[spawnLocation[spawn]];
+    }
+
+    /**
+     * Binary search over the sorted wall positions.
+     * @return index of the last wall at or before x, or -1 if x is before the first wall
+     */
+    public int findWall(float x) {
+        int low = 0;
+        int high = wallX.length - 1;
+        int found = -1;
+        while(low <= high) {
+            int mid = (low + high) >>> 1;
+            if(wallX[mid] <= x) {
+                found = mid;
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
     /**
      * Convenience method to calculate background size based on position of the last spawn wall.
      * @return width background should be to span the entire level
      */
     public int getBackgroundWidth(int screenWidth) {
-    	EnemySpawnWall lastWall = enemySpawnWallList.get(enemySpawnWallList.size() - 1);
-    	int screenSpans = lastWall.spawnWallX / screenWidth;
+    	int screenSpans = wallX[wallX.length - 1] / screenWidth;
     	return screenWidth * (screenSpans + 1);
     }
+
+    /**
+     * Convenience method to size spawn pools: the most enemies of one type a single spawn wall puts on screen.
+     * @return largest number of spawns with the given enemy id in any one wall
+     */
+    public int getMaxSpawnCount(int enemyId) {
+        int max = 0;
+        for(int wall = 0; wall < wallX.length; ++wall) {
+            int count = 0;
+            for(int spawn = getSpawnStart(wall); spawn < getSpawnEnd(wall); ++spawn) {
+                if(spawnEnemyId[spawn] == enemyId) count++;
+            }
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Convenience method to cap spawn pools: no more enemies of one type than the whole level spawns can
+     * ever be alive or waiting in a pool at once.
+     * @return number of spawns with the given enemy id over every wall
+     */
+    public int getTotalSpawnCount(int enemyId) {
+        int count = 0;
+        for(int spawn = 0; spawn < spawnEnemyId.length; ++spawn) {
+            if(spawnEnemyId[spawn] == enemyId) count++;
+        }
+        return count;
+    }
 }
@@ -0,0 +1,285 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.replay;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/**
+ * Compact binary log of the input a {@link broken.shotgun.throwthemoon.world.GameWorld} received,
+ * together with the seed and level it was built from, so the session can be played back exactly.
+ * <p>
+ * Events are timestamped with the world step they were applied before. Each event is a varint step
+ * delta from the previous event, a type byte and its arguments, so a held drag costs about ten bytes
+ * a frame. Files start with a small header:
+ * <pre>
+ * int    magic
+ * short  version
+ * long   seed
+ * short  level name length, followed by the name in ASCII
+ * int    last step
+ * int    event count
+ * </pre>
+ */
+public class InputJournal {
+    public static final int MAGIC = 0x544d494a;
+    public static final int VERSION = 2;
+
+    public static final byte MOVE_TO = 0;
+    public static final byte STOP = 1;
+    public static final byte VELOCITY = 2;
+    public static final byte WALK = 3;
+    public static final byte ATTACK = 4;
+    public static final byte FACE = 5;
+    public static final byte PULL_CHAIN = 6;
+    public static final byte FALL_MOON = 7;
+    public static final byte DROP_MOON = 8;
+    public static final byte CLEAR_ENEMIES = 9;
+    public static final byte RESET = 10;
+    public static final byte ENTITY_ENEMIES = 11;
+    public static final byte AI_QUOTA = 12;
+
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 2 + 4 + 4;
+
+    private final long seed;
+    private final String levelName;
+    private byte[] events;
+    private int size;
+    private int eventCount;
+    private int lastTick;
+    private int endTick;
+
+    public InputJournal(long seed, String levelName) {
+        this(seed, levelName, new byte[256], 0, 0, 0);
+    }
+
+    private InputJournal(long seed, String levelName, byte[] events, int size, int eventCount, int endTick) {
+        this.seed = seed;
+        this.levelName = levelName;
+        this.events = events;
+        this.size = size;
+        this.eventCount = eventCount;
+        this.endTick = endTick;
+    }
+
+    public void record(int tick, byte type) {
+        if(tick < lastTick) throw new GdxRuntimeException("Journal events must be recorded in step order");
+        writeVarInt(tick - lastTick);
+        writeByte(type);
+        lastTick = tick;
+        endTick = Math.max(endTick, tick);
+        eventCount++;
+    }
+
+    public void record(int tick, byte type, int value) {
+        record(tick, type);
+        writeVarInt(value);
+    }
+
+    public void record(int tick, byte type, float value) {
+        record(tick, type);
+        writeInt(NumberUtils.floatToIntBits(value));
+    }
+
+    public void record(int tick, byte type, float x, float y) {
+        record(tick, type);
+        writeInt(NumberUtils.floatToIntBits(x));
+        writeInt(NumberUtils.floatToIntBits(y));
+    }
+
+    /**
+     * Marks how far the session ran, so a replay stops where the recording did.
+     */
+    public void setEndTick(int tick) {
+        endTick = Math.max(endTick, tick);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getLevelName() {
+        return levelName;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * @return size of the recorded events in bytes
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public Reader reader() {
+        return new Reader();
+    }
+
+    public void save(FileHandle file) {
+        byte[] header = new byte[HEADER_SIZE + levelName.length()];
+        int offset = putInt(header, 0, MAGIC);
+        offset = putShort(header, offset, VERSION);
+        offset = putInt(header, offset, (int) (seed >>> 32));
+        offset = putInt(header, offset, (int) seed);
+        offset = putShort(header, offset, levelName.length());
+        for(int i = 0; i < levelName.length(); i++) header[offset++] = (byte) levelName.charAt(i);
+        offset = putInt(header, offset, endTick);
+        putInt(header, offset, eventCount);
+
+        file.writeBytes(header, false);
+        file.writeBytes(events, 0, size, true);
+    }
+
+    public static InputJournal load(FileHandle file) {
+        byte[] data = file.readBytes();
+        if(data.length < HEADER_SIZE) throw new GdxRuntimeException("Truncated input journal: " + file.path());
+        int offset = 0;
+        if(getInt(data, offset) != MAGIC) throw new GdxRuntimeException("Not an input journal: " + file.path());
+        offset += 4;
+        int version = getShort(data, offset); offset += 2;
+        if(version != VERSION) throw new GdxRuntimeException("Unsupported journal version " + version);
+        long seed = ((long) getInt(data, offset) << 32) | (getInt(data, offset + 4) & 0xffffffffL); offset += 8;
+        int nameLength = getShort(data, offset); offset += 2;
+        if(data.length < HEADER_SIZE + nameLength) throw new GdxRuntimeException("Truncated input journal: " + file.path());
+        char[] name = new char[nameLength];
+        for(int i = 0; i < nameLength; i++) name[i] = (char) data[offset++];
+        int endTick = getInt(data, offset); offset += 4;
+        int eventCount = getInt(data, offset); offset += 4;
+
+        byte[] events = new byte[data.length - offset];
+        System.arraycopy(data, offset, events, 0, events.length);
+        return new InputJournal(seed, new String(name), events, events.length, eventCount, endTick);
+    }
+
+    /**
+     * Walks the events in the order they were recorded.
+     */
+    public class Reader {
+        private int position = 0;
+        private int tick = 0;
+        private int nextTick = -1;
+
+        /**
+         * @return step of the next event, or -1 when there are no more
+         */
+        public int peekTick() {
+            if(nextTick == -1 && position < size) {
+                nextTick = tick + readVarInt();
+            }
+            return nextTick;
+        }
+
+        public byte next() {
+            if(peekTick() == -1) throw new GdxRuntimeException("No more journal events");
+            tick = nextTick;
+            nextTick = -1;
+            require(1);
+            return events[position++];
+        }
+
+        public int readInt() {
+            return readVarInt();
+        }
+
+        public float readFloat() {
+            require(4);
+            float value = NumberUtils.intBitsToFloat(getInt(events, position));
+            position += 4;
+            return value;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if(shift > 28) throw new GdxRuntimeException("Malformed input journal at byte " + position);
+                require(1);
+                b = events[position++];
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while((b & 0x80) != 0);
+            return value;
+        }
+
+        private void require(int bytes) {
+            if(position + bytes > size) throw new GdxRuntimeException("Truncated input journal at byte " + position);
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while((value & ~0x7f) != 0) {
+            writeByte((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((byte) value);
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        size = putInt(events, size, value);
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        events[size++] = value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if(size + extra <= events.length) return;
+        byte[] grown = new byte[Math.max(events.length * 2, size + extra)];
+        System.arraycopy(events, 0, grown, 0, size);
+        events = grown;
+    }
+
+    private static int putInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+        return offset + 4;
+    }
+
+    private static int putShort(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 8);
+        data[offset + 1] = (byte) value;
+        return offset + 2;
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16) |
+                ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+    }
+
+    private static int getShort(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 8) | (data[offset + 1] & 0xff);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.replay;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import broken.shotgun.throwthemoon.world.FixedTimestep;
+import broken.shotgun.throwthemoon.world.GameWorld;
+
+/**
+ * Plays an {@link InputJournal} back into a world built from the journal's level and seed. Every event
+ * is applied right before the step it was recorded at, through the same world commands live input
+ * uses, so the world goes through the same states as in the recorded session.
+ */
+public class ReplayDriver {
+    private final InputJournal journal;
+    private final GameWorld world;
+    private final InputJournal.Reader reader;
+
+    public ReplayDriver(InputJournal journal, GameWorld world) {
+        if(world.getSeed() != journal.getSeed()) {
+            throw new GdxRuntimeException("World seed " + world.getSeed() + " doesn't match the journal's " + journal.getSeed());
+        }
+        this.journal = journal;
+        this.world = world;
+        this.reader = journal.reader();
+    }
+
+    /**
+     * Applies the events due before the world's next step and takes it.
+     * @return false once the world reached the end of the recording
+     */
+    public boolean step() {
+        if(isFinished()) return false;
+
+        applyDueEvents();
+        world.step(FixedTimestep.STEP);
+        return true;
+    }
+
+    public boolean isFinished() {
+        return world.getTick() >= journal.getEndTick() && reader.peekTick() == -1;
+    }
+
+    /*
+     * Events stamped with an earlier step than the world is at belong to steps that already ran and are
+     * applied late rather than dropped, which only happens if the world was stepped past the driver.
+     */
+    private void applyDueEvents() {
+        while(reader.peekTick() != -1 && reader.peekTick() <= world.getTick()) {
+            byte type = reader.next();
+            switch (type) {
+                case InputJournal.MOVE_TO:
+                    world.moveTo(reader.readFloat(), reader.readFloat());
+                    break;
+                case InputJournal.STOP:
+                    world.stopPlayer();
+                    break;
+                case InputJournal.VELOCITY:
+                    world.setPlayerVelocity(reader.readFloat(), reader.readFloat(), false);
+                    break;
+                case InputJournal.WALK:
+                    world.setPlayerVelocity(reader.readFloat(), reader.readFloat(), true);
+                    break;
+                case InputJournal.ATTACK:
+                    world.attack(reader.readInt());
+                    break;
+                case InputJournal.FACE:
+                    world.faceTowards(reader.readFloat());
+                    break;
+                case InputJournal.PULL_CHAIN:
+                    world.pullChain(reader.readFloat());
+                    break;
+                case InputJournal.FALL_MOON:
+                    world.startMoonFall();
+                    break;
+                case InputJournal.DROP_MOON:
+                    world.dropMoon();
+                    break;
+                case InputJournal.CLEAR_ENEMIES:
+                    world.clearAllEnemies();
+                    break;
+                case InputJournal.RESET:
+                    world.reset();
+                    break;
+                case InputJournal.ENTITY_ENEMIES:
+                    world.setEntityEnemies(reader.readInt() != 0);
+                    break;
+                case InputJournal.AI_QUOTA:
+                    world.setAiQuota(reader.readInt());
+                    break;
+                default:
+                    throw new GdxRuntimeException("Unknown journal event " + type);
+            }
+        }
+    }
+}
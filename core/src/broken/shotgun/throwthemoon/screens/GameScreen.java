@@ -29,17 +29,16 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.GL20;
 
 import broken.shotgun.throwthemoon.ThrowTheMoonGame;
+import broken.shotgun.throwthemoon.debug.FrameProfiler;
 import broken.shotgun.throwthemoon.stages.GameStage;
 
 public class GameScreen implements Screen {
-    private final AssetManager manager;
     private final GameStage stage;
     private final ThrowTheMoonGame game;
 
-    public GameScreen(final ThrowTheMoonGame game) {
+    public GameScreen(final ThrowTheMoonGame game, final AssetManager manager) {
         this.game = game;
-        this.manager = new AssetManager();
-        this.stage = new GameStage(manager);
+        this.stage = new GameStage(manager, game.getAudioQueue(), game.getResources());
     }
 
     @Override
@@ -49,24 +48,28 @@ public class GameScreen implements Screen {
 
     @Override
     public void render(float delta) {
+        stage.getProfiler().begin(FrameProfiler.FRAME);
         Gdx.gl.glClearColor(0.616f, 0.0f, 0.616f, 1.0f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        stage.draw();
         stage.act(delta);
+        stage.draw();
 
         if(stage.isStageClear() && !stage.isFadingOut()) {
-        	stage.stopMusic();
+        	game.prefetchStageClearScreen();
         	stage.fadeOut((new Runnable() {
 				@Override
 				public void run() {
-					game.setScreen(new StageClearScreen(game));
+					game.showStageClearScreen();
 				}
 			}));
         }
         else if(stage.isGameOver()) {
             stage.resetLevel();
         }
+
+        stage.getProfiler().end(FrameProfiler.FRAME);
+        stage.getProfiler().endFrame();
     }
 
     @Override
@@ -91,7 +94,6 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
-        manager.dispose();
         stage.dispose();
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+
+import broken.shotgun.throwthemoon.debug.ResourceTracker;
+
+/**
+ * Drives {@link AssetManager#update(int)} under a per-frame time budget while drawing a progress bar,
+ * then hands over to the next screen once everything enqueued has loaded.
+ */
+public abstract class LoadingScreen implements Screen {
+    private static final int FRAME_BUDGET_MILLIS = 8;
+    private static final float BAR_WIDTH_PERCENT = 0.6f;
+    private static final float BAR_HEIGHT = 20f;
+
+    private final AssetManager manager;
+    private final ShapeRenderer renderer;
+    private final ResourceTracker resources;
+    private boolean loaded;
+
+    public LoadingScreen(final AssetManager manager, final ResourceTracker resources) {
+        this.manager = manager;
+        this.resources = resources;
+        this.renderer = resources.track(new ShapeRenderer(), "LoadingScreen");
+        this.loaded = false;
+    }
+
+    /**
+     * Called once, on the render thread, when every enqueued asset is available.
+     */
+    protected abstract void onLoaded();
+
+    @Override
+    public void show() {
+
+    }
+
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        boolean done = manager.update(FRAME_BUDGET_MILLIS);
+
+        float barWidth = Gdx.graphics.getWidth() * BAR_WIDTH_PERCENT;
+        float barX = (Gdx.graphics.getWidth() - barWidth) / 2f;
+        float barY = (Gdx.graphics.getHeight() - BAR_HEIGHT) / 2f;
+
+        renderer.begin(ShapeType.Filled);
+        renderer.setColor(Color.DARK_GRAY);
+        renderer.rect(barX, barY, barWidth, BAR_HEIGHT);
+        renderer.setColor(0.616f, 0.0f, 0.616f, 1.0f);
+        renderer.rect(barX, barY, barWidth * manager.getProgress(), BAR_HEIGHT);
+        renderer.end();
+
+        if(done && !loaded) {
+            loaded = true;
+            onLoaded();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        renderer.setProjectionMatrix(renderer.getProjectionMatrix().setToOrtho2D(0, 0, width, height));
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    @Override
+    public void hide() {
+
+    }
+
+    @Override
+    public void dispose() {
+        renderer.dispose();
+        resources.untrack(renderer);
+    }
+}
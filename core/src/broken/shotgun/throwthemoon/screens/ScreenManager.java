@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.screens;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+import broken.shotgun.throwthemoon.ThrowTheMoonGame;
+import broken.shotgun.throwthemoon.assets.AssetService;
+import broken.shotgun.throwthemoon.debug.ResourceTracker;
+
+/**
+ * Owns every screen the game switches between. A screen that is switched away from is either disposed,
+ * releasing the assets held under the screen itself, or kept for {@link #getCached(Class)} with its
+ * assets, as its class's {@link Policy} says.
+ * <p>
+ * Each screen's own cost in {@link #getUsages()} is what it holds through the {@link AssetService} as it
+ * is left: the number of asset references and an estimate of the texture memory behind them. The app
+ * wide Java and native heap are also sampled at each transition, so a loop through the screens that
+ * doesn't come back to the same numbers shows up; they include everything else alive at the time, and
+ * Java heap isn't collected before sampling so it reads high until the next collection.
+ */
+public class ScreenManager implements Disposable {
+    public enum Policy {
+        DISPOSE,
+        CACHE
+    }
+
+    private final Game game;
+    private final AssetService assets;
+    private final ResourceTracker resources;
+    private final ObjectMap<Class<?>, Policy> policies;
+    private final ObjectMap<Class<?>, Screen> cache;
+    private final ObjectMap<Class<?>, Usage> usages;
+    private final Array<Usage> usageList;
+    private Screen pending;
+
+    /**
+     * @param resources checkpointed each time a screen is shown, so screen loops that leak get reported
+     */
+    public ScreenManager(Game game, AssetService assets, ResourceTracker resources) {
+        this.game = game;
+        this.assets = assets;
+        this.resources = resources;
+        this.policies = new ObjectMap<Class<?>, Policy>();
+        this.cache = new ObjectMap<Class<?>, Screen>();
+        this.usages = new ObjectMap<Class<?>, Usage>();
+        this.usageList = new Array<Usage>();
+    }
+
+    /**
+     * Screens without a policy are disposed.
+     */
+    public void setPolicy(Class<? extends Screen> type, Policy policy) {
+        policies.put(type, policy);
+    }
+
+    /**
+     * @return the kept instance of the screen, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Screen> T getCached(Class<T> type) {
+        return (T) cache.get(type);
+    }
+
+    /**
+     * Switches right away and retires the current screen. Must not be called from inside the current
+     * screen's render if that screen gets disposed; use {@link #showAtEndOfFrame(Screen)} there.
+     */
+    public void show(Screen screen) {
+        Screen previous = game.getScreen();
+        if(previous == screen) return;
+
+        cache.remove(screen.getClass());
+        game.setScreen(screen);
+        Usage usage = usage(screen);
+        usage.shown(screen);
+        retire(previous);
+        resources.checkpoint("show " + usage.name);
+    }
+
+    /**
+     * Switches once the frame that is rendering is done.
+     */
+    public void showAtEndOfFrame(Screen screen) {
+        pending = screen;
+    }
+
+    /**
+     * Called by the game after rendering the current screen.
+     */
+    public void update() {
+        if(pending == null) return;
+        Screen screen = pending;
+        pending = null;
+        show(screen);
+    }
+
+    /*
+     * Only called once the next screen has acquired its assets, so shared ones never hit a zero count.
+     */
+    private void retire(Screen screen) {
+        if(screen == null) return;
+
+        Usage usage = usage(screen);
+        Array<AssetDescriptor<?>> held = assets.getHeld(screen);
+        usage.held(held != null ? held.size : 0, held != null ? resources.getTextureBytes(held) : 0);
+        if(policies.get(screen.getClass(), Policy.DISPOSE) == Policy.CACHE) {
+            cache.put(screen.getClass(), screen);
+            usage.left(false);
+        }
+        else {
+            screen.dispose();
+            assets.release(screen);
+            usage.left(true);
+        }
+        if(ThrowTheMoonGame.isDebug()) Gdx.app.log("ScreenManager", usage.toString());
+    }
+
+    private Usage usage(Screen screen) {
+        Usage usage = usages.get(screen.getClass());
+        if(usage == null) {
+            usage = new Usage(name(screen.getClass()));
+            usages.put(screen.getClass(), usage);
+            usageList.add(usage);
+        }
+        return usage;
+    }
+
+    private static String name(Class<?> type) {
+        String name = ClassReflection.getSimpleName(type);
+        return name.length() > 0 ? name : type.getName();
+    }
+
+    public Array<Usage> getUsages() {
+        return usageList;
+    }
+
+    /**
+     * Disposes the kept screens and the current one along with their assets.
+     */
+    @Override
+    public void dispose() {
+        for(Screen screen : cache.values()) {
+            screen.dispose();
+            assets.release(screen);
+        }
+        cache.clear();
+
+        Screen current = game.getScreen();
+        if(current != null) {
+            current.dispose();
+            assets.release(current);
+        }
+    }
+
+    /**
+     * What one kind of screen cost: the assets it held when it was last left, and the app wide heap at the
+     * transitions into and out of it.
+     */
+    public static class Usage {
+        public final String name;
+        public int shownCount;
+        public int createdCount;
+        public int disposedCount;
+        public int assetsHeld;
+        public long textureBytesHeld;
+        public long appJavaHeapAtShow;
+        public long appNativeHeapAtShow;
+        public long appJavaHeapAtLeave;
+        public long appNativeHeapAtLeave;
+        private Screen lastInstance;
+
+        Usage(String name) {
+            this.name = name;
+        }
+
+        void shown(Screen screen) {
+            shownCount++;
+            if(screen != lastInstance) createdCount++;
+            lastInstance = screen;
+            appJavaHeapAtShow = Gdx.app.getJavaHeap();
+            appNativeHeapAtShow = Gdx.app.getNativeHeap();
+        }
+
+        void held(int assets, long textureBytes) {
+            assetsHeld = assets;
+            textureBytesHeld = textureBytes;
+        }
+
+        void left(boolean disposed) {
+            if(disposed) {
+                disposedCount++;
+                lastInstance = null;
+            }
+            appJavaHeapAtLeave = Gdx.app.getJavaHeap();
+            appNativeHeapAtLeave = Gdx.app.getNativeHeap();
+        }
+
+        /**
+         * @return screens of this kind that were created and not disposed yet
+         */
+        public int getLiveCount() {
+            return createdCount - disposedCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [shown: " + shownCount + ", live: " + getLiveCount()
+                    + ", assets held: " + assetsHeld + " (~" + (textureBytesHeld / 1024) + " KB textures)"
+                    + ", app java heap at show -> leave: " + (appJavaHeapAtShow / 1024) + " -> " + (appJavaHeapAtLeave / 1024) + " KB"
+                    + ", app native heap at show -> leave: " + (appNativeHeapAtShow / 1024) + " -> " + (appNativeHeapAtLeave / 1024) + " KB]";
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package broken.shotgun.throwthemoon.screens;
 
 import broken.shotgun.throwthemoon.ThrowTheMoonGame;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.debug.ResourceTracker;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
@@ -20,47 +20,43 @@ public class StageClearScreen implements Screen {
 	private static final float WIDTH = 1280f;
     private static final float HEIGHT = 720;
     
-	private final AssetManager manager;
 	private final Stage stage;
+	private final ResourceTracker resources;
 	
-	private static final String TEXTURE_FILENAME = "stageclearbg.png";
-	private static final String MUSIC_FILENAME = "dotty.mp3";
 	private Texture background;
 	private Music music;
 	
-	public StageClearScreen(final ThrowTheMoonGame game) {
-        this.manager = new AssetManager();
+	public StageClearScreen(final ThrowTheMoonGame game, final AssetManager manager) {
         this.stage = new Stage(new StretchViewport(WIDTH, HEIGHT));
-        
-        manager.setLoader(Texture.class, new TextureLoader(new InternalFileHandleResolver()));
-        manager.load(TEXTURE_FILENAME, Texture.class);
-		manager.load(MUSIC_FILENAME, Music.class);
-        manager.finishLoading();
+        this.resources = game.getResources();
+        resources.track(stage.getBatch(), "StageClearScreen");
 
-        background = manager.get(TEXTURE_FILENAME);
-		music = manager.get(MUSIC_FILENAME);
+        background = manager.get(Assets.STAGE_CLEAR_TEXTURE);
+		music = manager.get(Assets.STAGE_CLEAR_MUSIC);
 
         Image backgroundImg = new Image(background);
         stage.addActor(backgroundImg);
         
-        Gdx.input.setInputProcessor(stage);
-        
         stage.addListener(new ActorGestureListener() {
 			@Override
 			public void tap(InputEvent event, float x, float y, int count, int button) {
 				music.stop();
-				game.setScreen(new GameScreen(game));
+				game.showGameScreen();
 				super.tap(event, x, y, count, button);
 			}
         });
-
-		music.setLooping(true);
-		music.play();
 	}
 
+	/**
+	 * Kept between plays, so everything that has to happen on each visit happens here.
+	 */
 	@Override
 	public void show() {
-		
+		Gdx.input.setInputProcessor(stage);
+
+		// normally already crossfaded in while the game screen faded out
+		music.setLooping(true);
+		if(!music.isPlaying()) music.play();
 	}
 
 	@Override
@@ -89,13 +85,14 @@ public class StageClearScreen implements Screen {
 
 	@Override
 	public void hide() {
-		
+		// the screen stays cached, so it must stop taking taps that would start another game
+		if(Gdx.input.getInputProcessor() == stage) Gdx.input.setInputProcessor(null);
 	}
 
 	@Override
 	public void dispose() {
-		manager.dispose();
         stage.dispose();
+        resources.untrack(stage.getBatch());
 	}
 
 }
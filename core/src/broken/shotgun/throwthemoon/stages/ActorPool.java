@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.stages;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool for actors that are spawned and removed repeatedly during a level. Tracks how often a spawn
+ * was served from the pool (hit) versus constructed on the spot (miss).
+ */
+public abstract class ActorPool<T extends Actor> extends Pool<T> {
+    private int hits = 0;
+    private int misses = 0;
+
+    public ActorPool(int initialCapacity, int max) {
+        super(initialCapacity, max);
+    }
+
+    @Override
+    public T obtain() {
+        if (getFree() > 0) hits++;
+        else misses++;
+        return super.obtain();
+    }
+
+    /**
+     * Constructs actors up front so the first spawns of a level don't allocate.
+     */
+    public void prewarm(int capacity) {
+        int missing = capacity - getFree();
+        if (missing <= 0) return;
+
+        Array<T> warm = new Array<T>(missing);
+        for (int i = 0; i < missing; ++i) {
+            warm.add(newObject());
+        }
+        freeAll(warm);
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+}
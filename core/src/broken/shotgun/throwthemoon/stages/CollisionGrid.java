@@ -0,0 +1,263 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.stages;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Uniform grid broadphase over actor bounds.
+ * <p>
+ * Actors are bucketed into every cell their bounds touch and are only re-bucketed when they cross a
+ * cell boundary, so collision and touch queries cost grows with the number of actors near the query
+ * instead of the number of actors on the stage. Every collision area in the game sits inside its
+ * actor's bounds, so a bounds hit is a safe candidate for a collision area test.
+ */
+public class CollisionGrid {
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final float cellSize;
+    private final LongMap<Array<Entry>> cells;
+    private final ObjectMap<Actor, Entry> entries;
+    private final Array<Entry> entryList;
+    private final Array<Actor> results;
+    private final Vector2 localPoint;
+
+    private final Pool<Entry> entryPool = new Pool<Entry>() {
+        @Override
+        protected Entry newObject() {
+            return new Entry();
+        }
+    };
+
+    private int queryStamp = 0;
+    private int insertOrder = 0;
+
+    private static class Entry {
+        Actor actor;
+        int minCellX, minCellY, maxCellX, maxCellY;
+        int order;
+        int stamp;
+    }
+
+    public CollisionGrid(float cellSize) {
+        this.cellSize = cellSize;
+        cells = new LongMap<Array<Entry>>();
+        entries = new ObjectMap<Actor, Entry>();
+        entryList = new Array<Entry>(false, 16);
+        results = new Array<Actor>();
+        localPoint = new Vector2();
+    }
+
+    public void insert(Actor actor) {
+        if (entries.containsKey(actor)) return;
+
+        Entry entry = entryPool.obtain();
+        entry.actor = actor;
+        entry.order = insertOrder++;
+        entry.stamp = queryStamp;
+        computeCells(actor, entry);
+        addToCells(entry);
+
+        entries.put(actor, entry);
+        entryList.add(entry);
+    }
+
+    public void remove(Actor actor) {
+        Entry entry = entries.remove(actor);
+        if (entry == null) return;
+
+        removeFromCells(entry);
+        entryList.removeValue(entry, true);
+        entry.actor = null;
+        entryPool.free(entry);
+    }
+
+    public void clear() {
+        for (int i = 0; i < entryList.size; ++i) {
+            Entry entry = entryList.get(i);
+            removeFromCells(entry);
+            entry.actor = null;
+        }
+        entryPool.freeAll(entryList);
+        entryList.clear();
+        entries.clear();
+        insertOrder = 0;
+    }
+
+    /**
+     * Re-buckets actors that crossed a cell boundary since the last call and drops actors that were
+     * removed from their stage.
+     * @param removed receives the actors dropped from the grid, may be null
+     */
+    public void refresh(Array<Actor> removed) {
+        for (int i = entryList.size - 1; i >= 0; --i) {
+            Entry entry = entryList.get(i);
+            Actor actor = entry.actor;
+
+            if (actor.getParent() == null) {
+                remove(actor);
+                if (removed != null) removed.add(actor);
+                continue;
+            }
+
+            int minCellX = cell(actor.getX());
+            int minCellY = cell(actor.getY());
+            int maxCellX = cell(actor.getX() + actor.getWidth());
+            int maxCellY = cell(actor.getY() + actor.getHeight());
+
+            if (minCellX != entry.minCellX || minCellY != entry.minCellY ||
+                    maxCellX != entry.maxCellX || maxCellY != entry.maxCellY) {
+                removeFromCells(entry);
+                entry.minCellX = minCellX;
+                entry.minCellY = minCellY;
+                entry.maxCellX = maxCellX;
+                entry.maxCellY = maxCellY;
+                addToCells(entry);
+            }
+        }
+    }
+
+    /**
+     * Collects every actor whose bounds share a cell with the area, in the order they were added.
+     * The returned array is reused by the next query.
+     */
+    public Array<Actor> query(Rectangle area) {
+        results.clear();
+        if (area.width <= 0 || area.height <= 0) return results;
+
+        queryStamp++;
+        int minCellX = cell(area.x);
+        int minCellY = cell(area.y);
+        int maxCellX = cell(area.x + area.width);
+        int maxCellY = cell(area.y + area.height);
+
+        for (int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+            for (int cellY = minCellY; cellY <= maxCellY; ++cellY) {
+                collect(cells.get(key(cellX, cellY)));
+            }
+        }
+
+        sortResults();
+        return results;
+    }
+
+    /**
+     * Scene2d style hit test restricted to the actors in the cell under the point.
+     * @return the topmost hit actor, or null if no indexed actor is under the point
+     */
+    public Actor hit(float stageX, float stageY, boolean touchable) {
+        Array<Entry> cellEntries = cells.get(key(cell(stageX), cell(stageY)));
+        if (cellEntries == null) return null;
+
+        Entry top = null;
+        for (int i = 0; i < cellEntries.size; ++i) {
+            Entry entry = cellEntries.get(i);
+            Actor actor = entry.actor;
+            if (!actor.isVisible()) continue;
+            if (touchable && actor.getTouchable() != Touchable.enabled) continue;
+            if (top != null && top.order > entry.order) continue;
+
+            actor.stageToLocalCoordinates(localPoint.set(stageX, stageY));
+            if (actor.hit(localPoint.x, localPoint.y, touchable) != null) {
+                top = entry;
+            }
+        }
+        return top == null ? null : top.actor;
+    }
+
+    public int size() {
+        return entryList.size;
+    }
+
+    private void collect(Array<Entry> cellEntries) {
+        if (cellEntries == null) return;
+        for (int i = 0; i < cellEntries.size; ++i) {
+            Entry entry = cellEntries.get(i);
+            if (entry.stamp == queryStamp) continue;
+            entry.stamp = queryStamp;
+            results.add(entry.actor);
+        }
+    }
+
+    private void sortResults() {
+        // results are small and mostly ordered already, insertion sort keeps this allocation free
+        Actor[] items = results.items;
+        for (int i = 1; i < results.size; ++i) {
+            Actor actor = items[i];
+            int order = entries.get(actor).order;
+            int j = i - 1;
+            while (j >= 0 && entries.get(items[j]).order > order) {
+                items[j + 1] = items[j];
+                j--;
+            }
+            items[j + 1] = actor;
+        }
+    }
+
+    private void computeCells(Actor actor, Entry entry) {
+        entry.minCellX = cell(actor.getX());
+        entry.minCellY = cell(actor.getY());
+        entry.maxCellX = cell(actor.getX() + actor.getWidth());
+        entry.maxCellY = cell(actor.getY() + actor.getHeight());
+    }
+
+    private void addToCells(Entry entry) {
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; ++cellX) {
+            for (int cellY = entry.minCellY; cellY <= entry.maxCellY; ++cellY) {
+                long key = key(cellX, cellY);
+                Array<Entry> cellEntries = cells.get(key);
+                if (cellEntries == null) {
+                    cellEntries = new Array<Entry>(false, INITIAL_CELL_CAPACITY);
+                    cells.put(key, cellEntries);
+                }
+                cellEntries.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCells(Entry entry) {
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; ++cellX) {
+            for (int cellY = entry.minCellY; cellY <= entry.maxCellY; ++cellY) {
+                Array<Entry> cellEntries = cells.get(key(cellX, cellY));
+                if (cellEntries != null) cellEntries.removeValue(entry, true);
+            }
+        }
+    }
+
+    private int cell(float coordinate) {
+        return MathUtils.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+}
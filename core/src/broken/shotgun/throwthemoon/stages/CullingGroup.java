@@ -0,0 +1,217 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.stages;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+import broken.shotgun.throwthemoon.debug.FrameProfiler;
+
+/**
+ * World layer that culls its children against the camera.
+ * <p>
+ * Children whose bounds fall outside the camera view (grown by a margin) are not drawn and only act
+ * every {@link #THROTTLED_STEP} seconds with the time they missed, so their actions still finish on
+ * time and they wake back to full rate as soon as they approach the view. Actors that drive game
+ * state can be registered with {@link #setAlwaysActive(Actor)} to keep acting every frame.
+ * <p>
+ * Children are drawn between the positions saved by {@link #savePositions()} and their current ones,
+ * by the fraction set with {@link #setAlpha(float)}, so a fixed rate simulation still moves smoothly
+ * at any refresh rate.
+ * <p>
+ * The layer is expected to sit untransformed at the stage origin and does not run actions of its own.
+ */
+public class CullingGroup extends Group {
+    public static final float THROTTLED_STEP = 0.1f;
+
+    private final Rectangle view;
+    private final ObjectSet<Actor> alwaysActive;
+    private final ObjectFloatMap<Actor> pendingDelta;
+    private final ObjectFloatMap<Actor> previousX;
+    private final ObjectFloatMap<Actor> previousY;
+    private float alpha = 1f;
+
+    private FrameProfiler profiler;
+    private int culledCount = 0;
+    private int throttledCount = 0;
+
+    public CullingGroup() {
+        view = new Rectangle();
+        alwaysActive = new ObjectSet<Actor>();
+        pendingDelta = new ObjectFloatMap<Actor>();
+        previousX = new ObjectFloatMap<Actor>();
+        previousY = new ObjectFloatMap<Actor>();
+        setTransform(false);
+    }
+
+    public void setView(Camera camera, float margin) {
+        float zoom = camera instanceof OrthographicCamera ? ((OrthographicCamera) camera).zoom : 1f;
+        float width = camera.viewportWidth * zoom;
+        float height = camera.viewportHeight * zoom;
+        setView(camera.position.x - (width / 2f), camera.position.y - (height / 2f), width, height, margin);
+    }
+
+    public void setView(float x, float y, float width, float height, float margin) {
+        view.set(x - margin, y - margin, width + (margin * 2f), height + (margin * 2f));
+    }
+
+    public void setAlwaysActive(Actor actor) {
+        alwaysActive.add(actor);
+    }
+
+    /**
+     * Times each child's act under a phase per actor type while the profiler is enabled.
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Drops the time a throttled actor still had pending, for actors that are about to be reused.
+     */
+    public void forget(Actor actor) {
+        pendingDelta.remove(actor, 0f);
+        previousX.remove(actor, 0f);
+        previousY.remove(actor, 0f);
+    }
+
+    /**
+     * Remembers where every child is before the next step.
+     */
+    public void savePositions() {
+        SnapshotArray<Actor> children = getChildren();
+        for (int i = 0; i < children.size; i++) {
+            Actor child = children.get(i);
+            previousX.put(child, child.getX());
+            previousY.put(child, child.getY());
+        }
+    }
+
+    /**
+     * @param alpha how far children are drawn from their saved towards their current position, 1 for current
+     */
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public void act(float delta) {
+        throttledCount = 0;
+
+        SnapshotArray<Actor> children = getChildren();
+        Actor[] actors = children.begin();
+        for (int i = 0, n = children.size; i < n; i++) {
+            Actor child = actors[i];
+            if (alwaysActive.contains(child) || inView(child)) {
+                actChild(child, delta + pendingDelta.remove(child, 0f));
+                continue;
+            }
+
+            throttledCount++;
+            float pending = pendingDelta.get(child, 0f) + delta;
+            if (pending >= THROTTLED_STEP) {
+                pendingDelta.remove(child, 0f);
+                actChild(child, pending);
+            }
+            else {
+                pendingDelta.put(child, pending);
+            }
+        }
+        children.end();
+    }
+
+    private void actChild(Actor child, float delta) {
+        if (profiler == null || !profiler.isEnabled()) {
+            child.act(delta);
+            return;
+        }
+
+        int phase = profiler.getActorPhase(child.getClass());
+        profiler.begin(phase);
+        child.act(delta);
+        profiler.end(phase);
+    }
+
+    @Override
+    protected void drawChildren(Batch batch, float parentAlpha) {
+        parentAlpha *= getColor().a;
+        culledCount = 0;
+
+        SnapshotArray<Actor> children = getChildren();
+        Actor[] actors = children.begin();
+        for (int i = 0, n = children.size; i < n; i++) {
+            Actor child = actors[i];
+            if (!child.isVisible()) continue;
+            if (inView(child)) {
+                drawChild(child, batch, parentAlpha);
+            }
+            else {
+                culledCount++;
+            }
+        }
+        children.end();
+    }
+
+    private void drawChild(Actor child, Batch batch, float parentAlpha) {
+        if (alpha >= 1f || !previousX.containsKey(child)) {
+            child.draw(batch, parentAlpha);
+            return;
+        }
+
+        float x = child.getX();
+        float y = child.getY();
+        float fromX = previousX.get(child, x);
+        float fromY = previousY.get(child, y);
+        child.setPosition(fromX + (x - fromX) * alpha, fromY + (y - fromY) * alpha);
+        child.draw(batch, parentAlpha);
+        child.setPosition(x, y);
+    }
+
+    private boolean inView(Actor actor) {
+        if (actor.getWidth() == 0 && actor.getHeight() == 0) return true;
+        return actor.getX() <= view.x + view.width && actor.getX() + actor.getWidth() >= view.x &&
+                actor.getY() <= view.y + view.height && actor.getY() + actor.getHeight() >= view.y;
+    }
+
+    /**
+     * @return number of children skipped by the last draw
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * @return number of children acting at the reduced rate during the last act
+     */
+    public int getThrottledCount() {
+        return throttledCount;
+    }
+}
@@ -26,17 +26,15 @@ package broken.shotgun.throwthemoon.stages;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.MusicLoader;
-import com.badlogic.gdx.assets.loaders.SoundLoader;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Interpolation;
@@ -47,109 +45,146 @@ import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.utils.ActorGestureListener;
+import com.badlogic.gdx.utils.SnapshotArray;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.StretchViewport;
 
-import java.util.List;
-import java.util.Random;
-
 import broken.shotgun.throwthemoon.actors.Background;
 import broken.shotgun.throwthemoon.actors.Boss;
 import broken.shotgun.throwthemoon.actors.Enemy;
 import broken.shotgun.throwthemoon.actors.LevelDebugRenderer;
-import broken.shotgun.throwthemoon.actors.Moon;
 import broken.shotgun.throwthemoon.actors.MoonChain;
 import broken.shotgun.throwthemoon.actors.Player;
-import broken.shotgun.throwthemoon.models.EnemySpawn;
-import broken.shotgun.throwthemoon.models.EnemySpawnWall;
-import broken.shotgun.throwthemoon.models.Level;
-import broken.shotgun.throwthemoon.models.SpawnLocation;
+import broken.shotgun.throwthemoon.ai.AiScheduler;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.Assets;
+import broken.shotgun.throwthemoon.audio.AudioQueue;
+import broken.shotgun.throwthemoon.audio.SoundMixer;
+import broken.shotgun.throwthemoon.debug.DebugHud;
+import broken.shotgun.throwthemoon.debug.FrameProfiler;
+import broken.shotgun.throwthemoon.debug.FrameTimeGraph;
+import broken.shotgun.throwthemoon.debug.LatencyMonitor;
+import broken.shotgun.throwthemoon.debug.RenderStats;
+import broken.shotgun.throwthemoon.debug.ResourceTracker;
+import broken.shotgun.throwthemoon.entities.EntityLayer;
+import broken.shotgun.throwthemoon.replay.InputJournal;
 import broken.shotgun.throwthemoon.stages.ui.MoonImpactMeter;
+import broken.shotgun.throwthemoon.world.FixedTimestep;
+import broken.shotgun.throwthemoon.world.GameWorld;
 
 import static broken.shotgun.throwthemoon.ThrowTheMoonGame.isDebug;
 
+/**
+ * Draws a {@link GameWorld} and feeds it the player's input. The rules themselves live in the world.
+ */
 public class GameStage extends Stage {
-    private static final String MUSIC_FILENAME = "SnestedLoops.ogg";
-    private static final String SFX_TV_ON_FILENAME = "sfx/tv_turn_on.mp3";
-    private static final float WIDTH = 1920f;
-    private static final float HEIGHT = 1080f;
+    private static final float WIDTH = GameWorld.WIDTH;
+    private static final float HEIGHT = GameWorld.HEIGHT;
+    private static final int FRAME_GRAPH_SAMPLES = 120;
+    private static final int RESOURCE_UPDATE_FRAMES = 60;
+    private static final String PROFILE_DIRECTORY = "profiles/";
+    private static final String REPLAY_DIRECTORY = "replays/";
     private boolean debug;
 
     private final AssetManager manager;
+    private final AnimationLibrary animations;
 
-    private Level currentLevel;
-    private int wallIndex = 0;
-    private Random random;
+    private final GameWorld world;
+    private final FixedTimestep timestep;
+    private final PlayerInput input;
+    private final LatencyMonitor latency;
     private boolean fadingOut;
 
     private Background background;
-    private Player player;
-    private Moon moon;
-    private MoonChain chain;
-    private Boss boss;
     private MoonImpactMeter moonImpactMeter;
     private Actor screenFadeActor;
 
     private final LevelDebugRenderer levelDebugRenderer;
-    private final StringBuilder screenLogger;
+    private final FrameTimeGraph frameTimeGraph;
+    private DebugHud hud;
     
-    private final Batch uiBatch;
+    private final SpriteBatch uiBatch;
     private final ShapeRenderer renderer;
+    private final RenderStats renderStats;
+    private final FrameProfiler profiler;
+    private final int stageDrawPhase;
+    private final int shapesPhase;
+    private final int hudPhase;
     private BitmapFont font;
 
     private Music music;
-    private Sound tvOnSfx;
-
-    private final Vector2 touchPoint;
+    private final SoundMixer sounds;
+    private final AudioQueue audioQueue;
+    private final ResourceTracker resources;
 
-    private static final float SCROLL_SCREEN_PERCENT_TRIGGER = 0.6f;
-    private float playerScreenX = 0.0f;
+    private final Vector2 hitPoint;
 
-    public GameStage(final AssetManager manager) {
+    public GameStage(final AssetManager manager, final AudioQueue audioQueue, final ResourceTracker resources) {
         super(new StretchViewport(WIDTH, HEIGHT));
 
-        this.manager = manager;
+        this.resources = resources;
+        resources.track(getBatch(), "GameStage");
 
-        loadLevel();
+        this.manager = manager;
+        this.animations = new AnimationLibrary(manager);
+        this.audioQueue = audioQueue;
+        this.sounds = new SoundMixer(manager, audioQueue);
+        this.world = new GameWorld(manager.get(Assets.CHAPTER_1_LEVEL), TimeUtils.millis(), animations, sounds);
+        this.timestep = new FixedTimestep();
+        this.input = new PlayerInput();
+        this.latency = new LatencyMonitor();
+        // the journal grows for as long as the session runs, so only debug builds keep one
+        if(isDebug()) world.setJournal(new InputJournal(world.getSeed(), Assets.CHAPTER_1_LEVEL.fileName));
+        world.setAdaptiveAi(true);
 
         loadSounds();
 
         loadFont();
 
-        random = new Random(System.currentTimeMillis());
         fadingOut = false;
 
-        background = new Background(manager);
-        chain = new MoonChain(manager);
-        player = new Player(manager);
-        moon = new Moon(manager);
+        background = new Background(animations);
 
-        moonImpactMeter = new MoonImpactMeter(moon);
+        moonImpactMeter = new MoonImpactMeter(world.getMoon());
         
         screenFadeActor = new Actor();
         screenFadeActor.setBounds(0, 0, WIDTH, HEIGHT);
         screenFadeActor.setColor(Color.CLEAR);
 
         levelDebugRenderer = new LevelDebugRenderer();
-        screenLogger = new StringBuilder();
+
+        getRoot().addActor(background);
+        getRoot().addActor(world.getRoot());
+        getRoot().addActor(levelDebugRenderer);
+        frameTimeGraph = new FrameTimeGraph(FRAME_GRAPH_SAMPLES);
         
-        uiBatch = new SpriteBatch();
-        renderer = new ShapeRenderer();
+        uiBatch = resources.track(new SpriteBatch(), "GameStage");
+        renderer = resources.track(new ShapeRenderer(), "GameStage");
+        renderStats = new RenderStats();
+        profiler = new FrameProfiler();
+        world.setProfiler(profiler);
+        stageDrawPhase = profiler.registerPhase("stage draw");
+        shapesPhase = profiler.registerPhase("shapes");
+        hudPhase = profiler.registerPhase("hud");
         renderer.setAutoShapeType(true);
 
-        touchPoint = new Vector2();
+        hitPoint = new Vector2();
 
         resetLevel();
 
         debug = isDebug();
         setDebugAll(debug);
+        renderStats.setEnabled(debug);
 
         Gdx.input.setInputProcessor(this);
 
         addListener(new ActorGestureListener() {
             @Override
             public void touchDown(InputEvent event, float x, float y, int pointer, int button) {
-                if (pointer == 0 && !(event.getTarget() instanceof Enemy || event.getTarget() instanceof Boss || (boss != null && event.getTarget() instanceof MoonChain))) {
-                    player.moveTo(touchPoint.set(x, y));
+                Boss boss = world.getBoss();
+                latency.input(LatencyMonitor.TOUCH, Gdx.input.getCurrentEventTime());
+                if (pointer == 0 && !(event.getTarget() instanceof Enemy || event.getTarget() instanceof EntityLayer || event.getTarget() instanceof Boss || (boss != null && event.getTarget() instanceof MoonChain))) {
+                    input.moveTo(x, y);
                 }
 
                 // FIXME replace String.format with StringBuilder for HTML
@@ -160,16 +195,17 @@ public class GameStage extends Stage {
 
             @Override
             public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
-                if (pointer == 0 && player.isWalking()) {
-                    player.stop();
+                if (pointer == 0) {
+                    input.stop();
                 }
                 super.touchUp(event, x, y, pointer, button);
             }
 
             @Override
             public void pan(InputEvent event, float x, float y, float deltaX, float deltaY) {
-            	if(boss == null || (boss != null && !(event.getTarget() instanceof MoonChain))) {
-            		player.moveTo(touchPoint.set(x, y));
+            	if(world.getBoss() == null || !(event.getTarget() instanceof MoonChain)) {
+            		latency.input(LatencyMonitor.TOUCH, Gdx.input.getCurrentEventTime());
+            		input.moveTo(x, y);
             	}
 
                 super.pan(event, x, y, deltaX, deltaY);
@@ -177,10 +213,9 @@ public class GameStage extends Stage {
 
             @Override
             public void tap(InputEvent event, float x, float y, int count, int button) {
-                player.performAttack(count);
-
-                float deltaX = ((player.getX() + player.getOriginX()) - x);
-                player.setFlipX(deltaX > 0);
+                latency.input(LatencyMonitor.TOUCH, Gdx.input.getCurrentEventTime());
+                world.attack(count);
+                world.faceTowards(x);
 
                 // FIXME replace String.format with StringBuilder for HTML
                 if (isDebug()) {
@@ -195,10 +230,8 @@ public class GameStage extends Stage {
 			@Override
 			public void fling(InputEvent event, float velocityX, float velocityY, int button) {
 				Gdx.app.log("GameStage", String.format("fling velocityX:%.2f velocityY:%.2f", velocityX, velocityY));
-				if(player.isMoonThrowEnabled() && velocityY < 0 && chain.isAttached() && event.getTarget() instanceof MoonChain) {
-					int multiplier = (boss != null && boss.isDefeated()) ? 10 : 2;
-					moon.addDistance(velocityY * multiplier);
-					chain.animatePull();
+				if(event.getTarget() instanceof MoonChain) {
+					world.pullChain(velocityY);
 				}
 				super.fling(event, velocityX, velocityY, button);
 			}
@@ -213,34 +246,41 @@ public class GameStage extends Stage {
             public boolean keyDown(InputEvent event, int keycode) {
                 switch (keycode) {
                     case Input.Keys.D:
-                        if(debug && player.isMoonThrowEnabled() && !moon.isFalling()) {
-                            moon.startFalling();
+                        if(debug) {
+                            world.startMoonFall();
                         }
                         break;
                     case Input.Keys.K:
                         if(debug) {
-                            clearAllEnemies();
+                            world.clearAllEnemies();
+                        }
+                        break;
+                    case Input.Keys.E:
+                        if(debug) {
+                            world.setEntityEnemies(!world.isEntityEnemies());
+                            resetLevel();
                         }
                         break;
                     case Input.Keys.SPACE:
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
                         attackCounter++;
-                        player.performAttack(attackCounter);
+                        world.attack(attackCounter);
                         return true;
                     case Input.Keys.LEFT:
-                        player.velocity.x = -7;
-                        player.startWalkState();
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityX(-Player.KEYBOARD_SPEED);
                         return true;
                     case Input.Keys.RIGHT:
-                        player.velocity.x = 7;
-                        player.startWalkState();
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityX(Player.KEYBOARD_SPEED);
                         return true;
                     case Input.Keys.UP:
-                        player.velocity.y = 7;
-                        player.startWalkState();
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityY(Player.KEYBOARD_SPEED);
                         return true;
                     case Input.Keys.DOWN:
-                        player.velocity.y = -7;
-                        player.startWalkState();
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityY(-Player.KEYBOARD_SPEED);
                         return true;
                 }
 
@@ -252,11 +292,13 @@ public class GameStage extends Stage {
                 switch (keycode) {
                     case Input.Keys.LEFT:
                     case Input.Keys.RIGHT:
-                        player.velocity.x = 0;
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityX(0);
                         return true;
                     case Input.Keys.UP:
                     case Input.Keys.DOWN:
-                        player.velocity.y = 0;
+                        latency.input(LatencyMonitor.KEYBOARD, Gdx.input.getCurrentEventTime());
+                        input.setVelocityY(0);
                         return true;
                 }
                 return super.keyUp(event, keycode);
@@ -265,140 +307,130 @@ public class GameStage extends Stage {
     }
 
     private void loadFont() {
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("fonts/anonymous_pro_b.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 20;
-        font = generator.generateFont(parameter);
-        generator.dispose();
+        font = manager.get(Assets.HUD_FONT);
+        hud = new DebugHud(font);
     }
 
-    /*
-     * For debugging only: removes all enemy actors from the screen.
-     */
-    private void clearAllEnemies() {
-    	for(Actor entity : getActors()) {
-            if(entity instanceof Enemy) {
-            	entity.clearActions();
-            	entity.remove();
-            }
-    	}
-	}
-
-	private void loadSounds() {
-        manager.setLoader(Music.class, new MusicLoader(new InternalFileHandleResolver()));
-        manager.setLoader(Sound.class, new SoundLoader(new InternalFileHandleResolver()));
-        manager.load(MUSIC_FILENAME, Music.class);
-        manager.load(SFX_TV_ON_FILENAME, Sound.class);
-        manager.finishLoading();
-
-        music = manager.get(MUSIC_FILENAME);
+    private void loadSounds() {
+        music = manager.get(Assets.GAME_MUSIC);
         music.setLooping(true);
-        
-        tvOnSfx = manager.get(SFX_TV_ON_FILENAME);
-    }
-
-    private void loadLevel() {
-        currentLevel = new Level();
-        currentLevel.chapter = 1;
-
-        int wallX = (int) (WIDTH * 0.75f);
-
-        for(int i=0; i<3; ++i) {
-            EnemySpawnWall spawnWall = new EnemySpawnWall();
-            spawnWall.spawnWallX = wallX;
 
-            for(int j=0; j<3; ++j) {
-                EnemySpawn spawn = new EnemySpawn();
-                spawn.enemyId = 0;
-                spawn.location = SpawnLocation.FRONT;
-                spawnWall.enemySpawnList.add(spawn);
-            }
-
-            if(i % 2 == 1) {
-                for(int j=0; j<2; ++j) {
-                    EnemySpawn spawn = new EnemySpawn();
-                    spawn.enemyId = 0;
-                    spawn.location = SpawnLocation.BACK;
-                    spawnWall.enemySpawnList.add(spawn);
-                }
-            }
-
-            currentLevel.enemySpawnWallList.add(spawnWall);
-
-            wallX += (int) (WIDTH * 0.75f);
-        }
-        
-        // boss
-        EnemySpawnWall bossSpawnWall = new EnemySpawnWall();
-        bossSpawnWall.spawnWallX = wallX;
-        EnemySpawn bossSpawn = new EnemySpawn();
-        bossSpawn.enemyId = 100;
-        bossSpawn.location = SpawnLocation.FRONT;
-        bossSpawnWall.enemySpawnList.add(bossSpawn);
-        currentLevel.enemySpawnWallList.add(bossSpawnWall);
+        sounds.setChannel(Assets.SFX_ENEMY_HIT, 4, 1, 0.21f);
+        sounds.setChannel(Assets.SFX_PLAYER_HIT, 2, 3, 0.14f);
+        sounds.setChannel(Assets.SFX_PLAYER_DIE, 1, 5, 1.35f);
+        sounds.setChannel(Assets.SFX_MOON_CRASH, 1, 5, 2.52f);
+        sounds.setChannel(Assets.SFX_CHAIN_PULL, 2, 2, 5.43f);
+        sounds.setChannel(Assets.SFX_TV_ON, 1, 4, 3.74f);
     }
 
+    /*
+     * The stage and the world only ever advance in fixed steps; whatever time is left over is used to
+     * draw the world part of the way towards the next step.
+     */
     @Override
     public void act(float delta) {
-        super.act(delta);
-
-        playerScreenX = stageToScreenCoordinates(player.getPosition()).x;
-
-        handleCollisions();
-        
-        logPoisitions();
-
-        if(boss != null && boss.isDefeated() && !chain.isHinting()) {
-            chain.hintPullChainForever();
+        input.apply(world);
+        latency.sample();
+
+        int steps = timestep.advance(delta);
+        for(int i = 0; i < steps; i++) {
+            world.savePositions();
+            super.act(FixedTimestep.STEP);
+            world.update();
         }
+        sounds.update(delta);
 
-        if(isStageClear()){
-        	// do nothing
-        }
-        else if(isChainOffscreen() && !chain.isAttached()) {
-            startGameOver();
-        }
-        else if(triggerSpawnWall(player.getX())) {
-            spawnEnemies(currentLevel.enemySpawnWallList.get(wallIndex).enemySpawnList);
+        float alpha = timestep.getAlpha();
+        world.setAlpha(alpha);
+        getCamera().position.x = world.getCameraX(alpha);
 
-            currentLevel.enemySpawnWallList.get(wallIndex).triggered = true;
-        }
-        else if(spawnWallActive()) {
-            if(allOnscreenEnemiesDefeated()) {
-                currentLevel.enemySpawnWallList.get(wallIndex).destroyed = true;
-                wallIndex++;
-            }
-        }
-        else if(shouldScrollCamera(playerScreenX)) {
-            float shiftX = playerScreenX - (getViewport().getScreenWidth() * SCROLL_SCREEN_PERCENT_TRIGGER);
-            getCamera().translate(shiftX, 0.0f, 0.0f);
-            player.getMoveTarget().x += shiftX;
-            if(!moon.isFalling()) moon.moveBy(shiftX, 0.0f);
+        if(world.isGameOverStarted() && music.isPlaying()) {
+            music.stop();
         }
+
+        profiler.begin(hudPhase);
+        logPoisitions();
+        profiler.end(hudPhase);
     }
 
     private void logPoisitions() {
     	if(!debug) return;
-    	
-    	vlog(String.format("Camera [x:%.0f, y:%.0f, width:%.0f, height:%.0f]", getCamera().position.x, getCamera().position.y, getCamera().viewportWidth, getCamera().viewportHeight));
-    	vlog(String.format("Stage [width:%.0f, height:%.0f]", getWidth(), getHeight()));
-    	vlog(String.format("Screen [width:%d, height:%d]", getViewport().getScreenWidth(), getViewport().getScreenHeight()));
-    	vlog(String.format("FPS: %d", Gdx.graphics.getFramesPerSecond()));
-    	
-    	if(wallIndex < currentLevel.enemySpawnWallList.size())
-    		vlog(String.format("Current spawn wall [index: %d, x: %d]", wallIndex, currentLevel.enemySpawnWallList.get(wallIndex).spawnWallX));
-    	
-    	vlog(String.format("Moon [distance: %d]", moon.getDistance()));
-    	
-    	for(Actor entity : getActors()) {
+
+    	frameTimeGraph.record(Gdx.graphics.getDeltaTime());
+
+    	hud.begin();
+    	hud.line().append("Camera [x:").append(getCamera().position.x, 0).append(", y:").append(getCamera().position.y, 0)
+    			.append(", width:").append(getCamera().viewportWidth, 0).append(", height:").append(getCamera().viewportHeight, 0).append(']');
+    	hud.line().append("Stage [width:").append(getWidth(), 0).append(", height:").append(getHeight(), 0).append(']');
+    	hud.line().append("Screen [width:").append(getViewport().getScreenWidth()).append(", height:").append(getViewport().getScreenHeight()).append(']');
+    	hud.line().append("FPS: ").append(Gdx.graphics.getFramesPerSecond())
+    			.append(" [frame max: ").append(frameTimeGraph.getHighest() * 1000f, 1).append(" ms]");
+
+    	int wallIndex = world.getWallIndex();
+    	if(wallIndex < world.getLevel().getWallCount())
+    		hud.line().append("Current spawn wall [index: ").append(wallIndex).append(", x: ").append(world.getLevel().getWallX(wallIndex)).append(']');
+
+    	hud.line().append("Moon [distance: ").append(world.getMoon().getDistance()).append(']');
+    	ActorPool<Enemy> enemyPool = world.getEnemyPool();
+    	hud.line().append("Enemy pool [free: ").append(enemyPool.getFree()).append(", hits: ").append(enemyPool.getHits())
+    			.append(", misses: ").append(enemyPool.getMisses()).append(']');
+    	if(world.isEntityEnemies())
+    		hud.line().append("Enemy entities [count: ").append(world.getEnemyEntities().size()).append(']');
+    	hud.line().append("Audio [voices: ").append(sounds.getActiveVoices()).append('/').append(sounds.getMaxVoices())
+    			.append(" (peak ").append(sounds.getPeakVoices()).append("), played: ").append(sounds.getPlayedCount())
+    			.append(", deduped: ").append(sounds.getDeduplicatedCount()).append(", stolen: ").append(sounds.getStolenCount())
+    			.append(", dropped: ").append(sounds.getDroppedCount()).append(']');
+    	hud.line().append("Audio queue [peak: ").append(audioQueue.getPeakBacklog()).append('/').append(audioQueue.getCapacity())
+    			.append(", refused: ").append(audioQueue.getRefusedCount()).append(", failed: ").append(audioQueue.getFailedCount()).append(']');
+    	AiScheduler ai = world.getAiScheduler();
+    	hud.line().append("AI [brains: ").append(ai.size()).append(", quota: ").append(ai.getQuota())
+    			.append(", think: ").append(ai.getMeanThinkCost() / 1000f, 1).append(" us]");
+    	// recounting walks every asset, so once a second is plenty
+    	if(Gdx.graphics.getFrameId() % RESOURCE_UPDATE_FRAMES == 0) resources.update();
+    	hud.line().append("Resources [textures: ").append(resources.getCount(Texture.class)).append(" + atlases: ").append(resources.getCount(TextureAtlas.class))
+    			.append(" (~").append(resources.getTextureBytes() / (1024 * 1024)).append(" MB, managed: ").append(resources.getManagedTextureCount())
+    			.append("), batches: ").append(resources.getCount(SpriteBatch.class)).append(", shapes: ").append(resources.getCount(ShapeRenderer.class))
+    			.append(", fonts: ").append(resources.getCount(BitmapFont.class)).append(", sounds: ").append(resources.getCount(Sound.class))
+    			.append(", music: ").append(resources.getCount(Music.class)).append(", growth: ").append(resources.getGrowth().size).append(']');
+    	hud.line().append("Culling [culled: ").append(world.getRoot().getCulledCount()).append(", throttled: ").append(world.getRoot().getThrottledCount()).append(']');
+
+    	for(int i = 0; i < renderStats.getPassCount(); i++) {
+    		RenderStats.Pass pass = renderStats.getPass(i);
+    		hud.line().append(pass.name).append(" [draws: ").append(pass.drawCalls.getMean(), 1)
+    				.append(" (max ").append(pass.drawCalls.getHighest(), 0).append("), binds: ").append(pass.textureBindings.getMean(), 1)
+    				.append(", shaders: ").append(pass.shaderSwitches.getMean(), 1).append(", verts: ").append(pass.vertices.getMean(), 0)
+    				.append(", flushes: ").append(pass.flushes.getMean(), 1).append(", max sprites: ").append(pass.maxSpritesInBatch.getHighest(), 0).append(']');
+    	}
+
+    	if(latency.isEnabled()) {
+    		for(int i = 0; i < latency.getPathCount(); i++) {
+    			FrameProfiler.Histogram path = latency.getPath(i);
+    			hud.line().append("Latency ").append(path.name).append(" [p50: ").append(path.getPercentile(0.5f) / 1000000f, 1)
+    					.append(" ms, p99: ").append(path.getPercentile(0.99f) / 1000000f, 1).append(" ms, inputs: ").append((int) path.getCount()).append(']');
+    		}
+    	}
+
+    	if(profiler.isEnabled()) {
+    		for(int i = 0; i < profiler.getPhaseCount(); i++) {
+    			FrameProfiler.Histogram phase = profiler.getPhase(i);
+    			if(phase.getCount() == 0) continue;
+    			hud.line().append("Profile ").append(phase.name).append(" [p50: ").append(phase.getPercentile(0.5f) / 1000f, 1)
+    					.append(" us, p99: ").append(phase.getPercentile(0.99f) / 1000f, 1).append(" us, max: ").append(phase.getMax() / 1000f, 1).append(" us]");
+    		}
+    	}
+
+    	SnapshotArray<Actor> children = world.getRoot().getChildren();
+    	for(int i = 0; i < children.size; i++) {
+    		Actor entity = children.get(i);
     		String tag = (entity instanceof Player) ? "Player" :
     			(entity instanceof Enemy) ? "Enemy" :
     			(entity instanceof Boss) ? "Boss" : null;
     		
     		if(tag != null) {
-    			vlog(String.format("%s [x:%.0f, y:%.0f]", tag, entity.getX(), entity.getY()));
+    			hud.line().append(tag).append(" [x:").append(entity.getX(), 0).append(", y:").append(entity.getY(), 0).append(']');
     		}
     	}
+    	hud.end();
 	}
 
 	@Override
@@ -406,133 +438,22 @@ public class GameStage extends Stage {
         return super.touchDragged(screenX, screenY, pointer);
     }
 
-    private void startGameOver() {
-        player.die();
-        music.stop();
-    }
-
-    private boolean isChainOffscreen() {
-        return stageToScreenCoordinates(chain.getPosition()).x <= -32;
-    }
-
-    private void handleCollisions() {
-    	boolean attackHit = false;
-        for(Actor entity : getActors()) {
-            if(entity instanceof Enemy) {
-                Enemy enemy = (Enemy) entity;
-                if(player.getCollisionArea().overlaps(enemy.getCollisionArea())) {
-                    if(chain.isAttached()) chain.detachTail();
-                    player.takeDamage();
-                }
-                if(enemy.getCollisionArea().overlaps(player.getAttackArea())) {
-                    enemy.takeDamage(player.getAttackArea().x < enemy.getX() + enemy.getOriginX() ? 1 : -1);
-                    attackHit = true;
-                }
-            }
-            else if(entity instanceof Boss) {
-                Boss boss = (Boss) entity;
-                if(player.getCollisionArea().overlaps(boss.getCollisionArea())) {
-                    if(chain.isAttached()) chain.detachTail();
-                    player.takeDamage();
-                }
-                if(boss.getCollisionArea().overlaps(player.getAttackArea())) {
-                    boss.takeDamage(player.getAttackArea().x < boss.getX() + boss.getOriginX() ? 1 : -1);
-                    attackHit = true;
-                }
-            }
-            else if(entity instanceof MoonChain && !((MoonChain) entity).isAttached() && !player.isTakingDamage()) {
-                if (player.getCollisionArea().overlaps(((MoonChain) entity).getCollisionArea())) {
-                    chain.attachTail(player);
-                }
-            }
-        }
-        
-        if(attackHit) player.clearAttackArea();
-    }
-
-    public boolean shouldScrollCamera(float x) {
-        return playerScreenX > getViewport().getScreenWidth() * SCROLL_SCREEN_PERCENT_TRIGGER;
-    }
-
-    public boolean triggerSpawnWall(float x) {
-        return wallIndex < currentLevel.enemySpawnWallList.size() &&
-                x >= currentLevel.enemySpawnWallList.get(wallIndex).spawnWallX &&
-                !(currentLevel.enemySpawnWallList.get(wallIndex).triggered || currentLevel.enemySpawnWallList.get(wallIndex).destroyed);
-    }
-
-    public boolean spawnWallActive() {
-        return wallIndex < currentLevel.enemySpawnWallList.size() &&
-                currentLevel.enemySpawnWallList.get(wallIndex).triggered &&
-                !currentLevel.enemySpawnWallList.get(wallIndex).destroyed;
-    }
-
-    public void spawnEnemies(List<EnemySpawn> spawnList) {
-        int offsetY = 100;
-        for(EnemySpawn spawn : spawnList) {
-            if(spawn.enemyId == 0) {
-                Enemy newEnemy = new Enemy(manager);
-                Vector2 spawnPoint = new Vector2();
-                spawnPoint.y = offsetY + (getViewport().getScreenHeight() / spawnList.size());
-                switch (spawn.location) {
-                    case FRONT:
-                        spawnPoint.x = getViewport().getScreenWidth() * 0.8f;
-                        break;
-                    case BACK:
-                        spawnPoint.x = getViewport().getScreenWidth() * 0.15f;
-                        break;
-                }
-
-                screenToStageCoordinates(spawnPoint);
-                newEnemy.setPosition(spawnPoint.x, spawnPoint.y + (newEnemy.getHeight() / 2));
-                newEnemy.setColor(1.0f, 1.0f, 1.0f, 0.0f);
-                newEnemy.addAction(Actions.fadeIn(0.5f));
-                addActor(newEnemy);
-                offsetY += (getViewport().getScreenHeight() / spawnList.size());
-            }
-            else if(spawn.enemyId == 100) {
-                boss = new Boss(manager);
-                Vector2 spawnPoint = new Vector2();
-                spawnPoint.y = (getViewport().getScreenHeight() / 2);
-                switch (spawn.location) {
-                    case FRONT:
-                        spawnPoint.x = getViewport().getScreenWidth() * 0.7f;
-                        break;
-                    case BACK:
-                        spawnPoint.x = getViewport().getScreenWidth() * 0.15f;
-                        break;
-                }
-
-                screenToStageCoordinates(spawnPoint);
-                boss.setPosition(spawnPoint.x + (getViewport().getScreenWidth() * 0.5f), spawnPoint.y - (boss.getHeight() / 2));
-                boss.addAction(
-                        Actions.sequence(
-                                Actions.moveTo(spawnPoint.x, spawnPoint.y - (boss.getHeight() / 2), 3f, Interpolation.fade),
-                                Actions.run(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        boss.startBattle();
-                                    }
-                                })));
-                addActor(boss);
-                player.enableMoonThrow();
-                chain.hintPullChain();
-            }
-        }
-    }
-
-    public boolean allOnscreenEnemiesDefeated() {
-        for(Actor entity : getActors()) {
-            if(entity instanceof Enemy) return false;
-            if(entity instanceof Boss) return false;
-        }
-        return true;
-    }
-
     @Override
     public void draw() {
+        profiler.begin(stageDrawPhase);
+        renderStats.beginPass(RenderStats.PASS_BACKGROUND);
+        getCamera().update();
+        background.drawCache(getCamera(), getRoot().getColor().a);
+        renderStats.endPass(RenderStats.PASS_BACKGROUND);
+
+        renderStats.beginPass(RenderStats.PASS_STAGE);
         super.draw();
+        profiler.end(stageDrawPhase);
+        renderStats.endPass(RenderStats.PASS_STAGE, (SpriteBatch) getBatch());
 
-        if(boss != null) {
+        renderStats.beginPass(RenderStats.PASS_SHAPES);
+        profiler.begin(shapesPhase);
+        if(world.getBoss() != null) {
             renderer.begin();
             moonImpactMeter.draw(renderer);
             renderer.end();
@@ -546,21 +467,76 @@ public class GameStage extends Stage {
         	renderer.end();
             Gdx.gl.glDisable(GL20.GL_BLEND);
         }
+        profiler.end(shapesPhase);
+        renderStats.endPass(RenderStats.PASS_SHAPES);
         
         if(debug) {
+            profiler.begin(hudPhase);
+            renderStats.beginPass(RenderStats.PASS_DEBUG_SHAPES);
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            renderer.begin(ShapeType.Filled);
+            frameTimeGraph.draw(renderer, 50, 320, 360, 80);
+            renderer.end();
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+            renderStats.endPass(RenderStats.PASS_DEBUG_SHAPES);
+
+            renderStats.beginPass(RenderStats.PASS_UI);
 	        uiBatch.begin();
-			font.draw(uiBatch, screenLogger.toString(), 50, 300);
-			screenLogger.setLength(0);
+			hud.draw(uiBatch, 50, 300);
 			uiBatch.end();
+            renderStats.endPass(RenderStats.PASS_UI, uiBatch);
+            profiler.end(hudPhase);
         }
+        renderStats.endFrame();
+
+        if(latency.isEnabled()) {
+            Gdx.gl.glFinish();
+            latency.present(TimeUtils.nanoTime());
+        }
+    }
+
+    public RenderStats getRenderStats() {
+        return renderStats;
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    /*
+     * Overlays are checked first, then the world's collision grid, and the level wide background last,
+     * so a touch never has to walk every enemy on the stage.
+     */
+    @Override
+    public Actor hit(float stageX, float stageY, boolean touchable) {
+        Actor target = hitUnindexed(screenFadeActor, stageX, stageY, touchable);
+        if(target == null) target = hitUnindexed(world.getMoon(), stageX, stageY, touchable);
+        if(target == null) target = world.hit(stageX, stageY, touchable);
+        if(target == null) target = hitUnindexed(background, stageX, stageY, touchable);
+        return target;
+    }
+
+    private Actor hitUnindexed(Actor actor, float stageX, float stageY, boolean touchable) {
+        if(actor.getStage() != this || !actor.isVisible()) return null;
+        actor.stageToLocalCoordinates(hitPoint.set(stageX, stageY));
+        return actor.hit(hitPoint.x, hitPoint.y, touchable);
     }
 
     @Override
     public void dispose() {
         super.dispose();
+        sounds.stopAll();
+        background.dispose();
         uiBatch.dispose();
-        font.dispose();
         renderer.dispose();
+        resources.untrack(getBatch());
+        resources.untrack(uiBatch);
+        resources.untrack(renderer);
+        renderStats.setEnabled(false);
     }
 
     @Override
@@ -569,53 +545,92 @@ public class GameStage extends Stage {
             case Input.Keys.APOSTROPHE:
                 debug = !debug;
                 setDebugAll(debug);
+                renderStats.setEnabled(debug);
+                break;
+            case Input.Keys.P:
+                toggleProfiler();
+                break;
+            case Input.Keys.L:
+                toggleLatencyMeasurement();
+                break;
+            case Input.Keys.J:
+                saveJournal();
                 break;
         }
         return super.keyDown(keyCode);
     }
 
-    public boolean isGameOver() {
-        return player.getStage() == null;
+    /*
+     * Writes the input of the session so far next to the game, for replaying it headless.
+     */
+    private void saveJournal() {
+        InputJournal journal = world.getJournal();
+        if(journal == null) return;
+        journal.setEndTick(world.getTick());
+        FileHandle file = Gdx.files.local(REPLAY_DIRECTORY + "replay_" + TimeUtils.millis() + ".tmj");
+        journal.save(file);
+        Gdx.app.log("InputJournal", "Wrote " + journal.getEventCount() + " events over " + journal.getEndTick() + " steps to " + file.path());
     }
 
-    public void resetLevel() {
-        getActors().clear();
-        addActor(background);
-        addActor(chain);
-        addActor(player);
-        addActor(levelDebugRenderer);
+    /*
+     * Starts measuring input latency, or stops and logs the results. While measuring every frame waits
+     * for the GPU to finish, so the numbers include the draw but the frame rate may drop.
+     */
+    private void toggleLatencyMeasurement() {
+        if(!latency.isEnabled()) {
+            latency.reset();
+            latency.setEnabled(true);
+            return;
+        }
 
-        boss = null;
+        latency.setEnabled(false);
+        for(int i = 0; i < latency.getPathCount(); i++) {
+            FrameProfiler.Histogram path = latency.getPath(i);
+            Gdx.app.log("LatencyMonitor", path.name + ": " + path.getCount() + " inputs, p50 " + (path.getPercentile(0.5f) / 1000000f)
+                    + " ms, p99 " + (path.getPercentile(0.99f) / 1000000f) + " ms, max " + (path.getMax() / 1000000f) + " ms");
+        }
+    }
 
-        levelDebugRenderer.setLevel(currentLevel);
+    /*
+     * Starts a fresh profile, or stops the running one and writes it next to the game.
+     */
+    private void toggleProfiler() {
+        if(!profiler.isEnabled()) {
+            profiler.reset();
+            profiler.setEnabled(true);
+            return;
+        }
 
-        background.setWidth(currentLevel.getBackgroundWidth((int) WIDTH));
-        background.setHeight(HEIGHT);
-        player.setPosition((WIDTH / 8), (HEIGHT / 2));
-        player.reset();
-        moon.setPosition((WIDTH / 2) - (moon.getWidth() / 2), HEIGHT);
-        moon.reset();
-        chain.reset();
-        chain.attachTail(player);
+        profiler.setEnabled(false);
+        FileHandle file = Gdx.files.local(PROFILE_DIRECTORY + "frame_" + TimeUtils.millis() + ".csv");
+        profiler.exportCsv(file);
+        Gdx.app.log("FrameProfiler", "Wrote " + file.path());
+    }
 
-        playerScreenX = 0.0f;
+    public boolean isGameOver() {
+        return world.isGameOver();
+    }
 
-        getCamera().position.set(WIDTH / 2, HEIGHT / 2, 0);
+    public void resetLevel() {
+        resources.checkpoint("resetLevel");
+        world.reset();
+        timestep.reset();
+        input.clear();
+        screenFadeActor.remove();
 
-        touchPoint.set(0, 0);
+        levelDebugRenderer.setLevel(world.getLevel());
 
-        for(EnemySpawnWall wall : currentLevel.enemySpawnWallList) {
-            wall.triggered = false;
-            wall.destroyed = false;
-        }
-        wallIndex = 0;
+        background.setWidth(world.getLevel().getBackgroundWidth((int) WIDTH));
+        background.setHeight(HEIGHT);
+
+        getCamera().position.set(world.getCameraX(), HEIGHT / 2, 0);
 
         addAction(
     		Actions.sequence(
     			Actions.run(new Runnable() {
 					@Override
 					public void run() {
-						tvOnSfx.play();
+						sounds.play(Assets.SFX_TV_ON, 1f, 1f, 0f);
 					}
     			}),
     			Actions.delay(2f),
@@ -627,32 +642,23 @@ public class GameStage extends Stage {
     			})));
     }
     
-    private void vlog(String line) {
-    	screenLogger.append(line + "\n");
-    }
-
 	public boolean isStageClear() {
-		return moon.getDistance() <= 0;
+		return world.isStageClear();
 	}
 	
-	public void stopMusic() {
-		music.stop();
-	}
-
 	public void fadeOut(Runnable runnable) {
 		if(fadingOut) return;
 		
 		fadingOut = true;
 
-        addActor(moon);
-		moon.startFalling();
+        world.dropMoon();
 
 		screenFadeActor.addAction(
                 Actions.sequence(
                         Actions.color(Color.CLEAR),
                         Actions.color(Color.RED, 5f, Interpolation.exp5In),
                         Actions.run(runnable)));
-        addActor(screenFadeActor);
+        getRoot().addActor(screenFadeActor);
 	}
 
 	public boolean isFadingOut() {
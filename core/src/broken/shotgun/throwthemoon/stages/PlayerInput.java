@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.stages;
+
+import com.badlogic.gdx.math.Vector2;
+
+import broken.shotgun.throwthemoon.world.GameWorld;
+
+/**
+ * Latches the player's movement input between frames.
+ * <p>
+ * Drags arrive far more often than the world steps, so only the latest touch target and keyboard
+ * direction are kept and handed to the player once per frame, right before the world steps.
+ */
+public class PlayerInput {
+    private final Vector2 moveTarget;
+    private boolean moveRequested;
+    private boolean stopRequested;
+
+    private float velocityX;
+    private float velocityY;
+    private boolean velocityChanged;
+    private boolean walkRequested;
+
+    public PlayerInput() {
+        moveTarget = new Vector2();
+    }
+
+    public void moveTo(float x, float y) {
+        moveTarget.set(x, y);
+        moveRequested = true;
+        stopRequested = false;
+    }
+
+    public void stop() {
+        stopRequested = true;
+        moveRequested = false;
+    }
+
+    /**
+     * Sets the keyboard direction on one axis, starting a walk if it isn't zero.
+     */
+    public void setVelocityX(float velocityX) {
+        this.velocityX = velocityX;
+        velocityChanged = true;
+        if(velocityX != 0) walkRequested = true;
+    }
+
+    public void setVelocityY(float velocityY) {
+        this.velocityY = velocityY;
+        velocityChanged = true;
+        if(velocityY != 0) walkRequested = true;
+    }
+
+    /**
+     * Hands the input latched since the last call to the world's player.
+     */
+    public void apply(GameWorld world) {
+        if(velocityChanged) {
+            world.setPlayerVelocity(velocityX, velocityY, walkRequested);
+        }
+
+        if(moveRequested) {
+            world.moveTo(moveTarget.x, moveTarget.y);
+        }
+        else if(stopRequested) {
+            world.stopPlayer();
+            velocityX = world.getPlayer().velocity.x;
+            velocityY = world.getPlayer().velocity.y;
+        }
+
+        moveRequested = false;
+        stopRequested = false;
+        velocityChanged = false;
+        walkRequested = false;
+    }
+
+    public void clear() {
+        velocityX = 0;
+        velocityY = 0;
+        moveRequested = false;
+        stopRequested = false;
+        velocityChanged = false;
+        walkRequested = false;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.world;
+
+/**
+ * Turns variable frame times into a whole number of fixed simulation steps.
+ * <p>
+ * Frame time is accumulated and spent in {@link #STEP} sized steps, so the world advances the same way
+ * and costs the same per second of play at any refresh rate. The time left over is exposed as
+ * {@link #getAlpha()} for drawing between the last two steps. A frame runs at most {@link #MAX_STEPS}
+ * steps and drops whatever time is left beyond them, so on a device too slow to keep up the game slows
+ * down instead of spending ever more of each frame catching up.
+ */
+public class FixedTimestep {
+    public static final float STEP = 1f / 120f;
+    public static final int MAX_STEPS = 5;
+
+    private float accumulator = 0f;
+
+    /**
+     * @return number of steps to run for a frame that took the given time
+     */
+    public int advance(float frameTime) {
+        accumulator += frameTime;
+        int steps = (int) (accumulator / STEP);
+        if(steps > MAX_STEPS) {
+            accumulator = 0f;
+            return MAX_STEPS;
+        }
+        accumulator -= steps * STEP;
+        return steps;
+    }
+
+    /**
+     * @return how far between the previous and the current step the frame is drawn, from 0 to 1
+     */
+    public float getAlpha() {
+        return accumulator / STEP;
+    }
+
+    public void reset() {
+        accumulator = 0f;
+    }
+}
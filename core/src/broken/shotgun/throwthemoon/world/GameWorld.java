@@ -0,0 +1,710 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.world;
+
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+import java.util.Random;
+
+import broken.shotgun.throwthemoon.actors.Boss;
+import broken.shotgun.throwthemoon.actors.Enemy;
+import broken.shotgun.throwthemoon.actors.Moon;
+import broken.shotgun.throwthemoon.actors.MoonChain;
+import broken.shotgun.throwthemoon.actors.Player;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+import broken.shotgun.throwthemoon.ai.AiScheduler;
+import broken.shotgun.throwthemoon.debug.FrameProfiler;
+import broken.shotgun.throwthemoon.entities.EnemyEntities;
+import broken.shotgun.throwthemoon.entities.EntityLayer;
+import broken.shotgun.throwthemoon.models.Level;
+import broken.shotgun.throwthemoon.replay.InputJournal;
+import broken.shotgun.throwthemoon.stages.ActorPool;
+import broken.shotgun.throwthemoon.stages.CollisionGrid;
+import broken.shotgun.throwthemoon.stages.CullingGroup;
+
+/**
+ * The game simulation: player, enemies, boss, chain, moon distance and spawn walls.
+ * <p>
+ * Everything is in world units and nothing here touches GL, the input or the clock, so a world built
+ * with {@link AnimationLibrary#headless()} and {@link SoundPlayer#SILENT} can be stepped on a plain JVM.
+ * Two worlds built from the same level and seed and fed the same steps and input end up in the same state.
+ * {@link broken.shotgun.throwthemoon.stages.GameStage} adds the rendering and input on top of {@link #getRoot()}.
+ * <p>
+ * Regular enemies are either pooled {@link Enemy} actors or, in entity mode, Ashley entities run by
+ * {@link EnemyEntities}, which scales to much bigger waves. The boss, player, chain and moon stay actors.
+ * <p>
+ * All input reaches the world through its command methods (moving, attacking, pulling the chain, resets),
+ * which log themselves to an {@link InputJournal} when one is set, stamped with the current step.
+ */
+public class GameWorld {
+    public static final float WIDTH = 1920f;
+    public static final float HEIGHT = 1080f;
+    private static final float COLLISION_CELL_SIZE = 256f;
+    private static final float CULLING_MARGIN = 128f;
+    private static final float SCROLL_VIEW_PERCENT_TRIGGER = 0.6f;
+    private static final float CHAIN_OFFSCREEN_X = -32f;
+    private static final int ENEMY_ID = 0;
+    private static final int BOSS_ID = 100;
+    private static final int AI_TUNE_INTERVAL = 120;
+    private static final float SLOT_SPREAD = 160f;
+
+    private final Level level;
+    private final Bits wallsTriggered;
+    private final Bits wallsDestroyed;
+    private final long seed;
+    private final Random random;
+
+    private final CullingGroup root;
+    private final CollisionGrid collisionGrid;
+    private final Array<Actor> removedActors;
+    private final ActorPool<Enemy> enemyPool;
+    private final ActorPool<Boss> bossPool;
+    private final EnemyEntities enemyEntities;
+    private final EntityLayer enemyLayer;
+    private boolean entityEnemies;
+    private boolean entityEnemiesRequested;
+    private final AiScheduler aiScheduler;
+    private boolean adaptiveAi;
+
+    private final Player player;
+    private final MoonChain chain;
+    private final Moon moon;
+    private Boss boss;
+
+    private final Vector2 spawnPoint;
+    private final Vector2 moveTarget;
+    private final Rectangle view;
+    private final Runnable startBossBattle;
+
+    private int wallIndex = 0;
+    private int tick = 0;
+    private InputJournal journal;
+    private float cameraX;
+    private float previousCameraX;
+    private boolean gameOverStarted;
+
+    private FrameProfiler profiler;
+    private int collisionsPhase;
+    private int spawnWallsPhase;
+    private int aiPhase;
+
+    public GameWorld(Level level, long seed, final AnimationLibrary animations, final SoundPlayer sounds) {
+        this.level = level;
+        this.wallsTriggered = new Bits(level.getWallCount());
+        this.wallsDestroyed = new Bits(level.getWallCount());
+        this.seed = seed;
+        this.random = new Random(seed);
+
+        root = new CullingGroup();
+        collisionGrid = new CollisionGrid(COLLISION_CELL_SIZE);
+        removedActors = new Array<Actor>();
+        aiScheduler = new AiScheduler();
+
+        enemyPool = new ActorPool<Enemy>(level.getMaxSpawnCount(ENEMY_ID), level.getTotalSpawnCount(ENEMY_ID)) {
+            @Override
+            protected Enemy newObject() {
+                return new Enemy(animations, sounds);
+            }
+        };
+        enemyPool.prewarm(level.getMaxSpawnCount(ENEMY_ID));
+
+        bossPool = new ActorPool<Boss>(level.getMaxSpawnCount(BOSS_ID), level.getTotalSpawnCount(BOSS_ID)) {
+            @Override
+            protected Boss newObject() {
+                return new Boss(animations, sounds);
+            }
+        };
+        bossPool.prewarm(level.getMaxSpawnCount(BOSS_ID));
+
+        enemyEntities = new EnemyEntities(animations, sounds, aiScheduler, level.getMaxSpawnCount(ENEMY_ID));
+        enemyLayer = new EntityLayer(enemyEntities);
+
+        player = new Player(animations, sounds);
+        enemyEntities.setTarget(player);
+        chain = new MoonChain(animations, sounds);
+        moon = new Moon(animations, sounds);
+
+        root.setAlwaysActive(chain);
+        root.setAlwaysActive(player);
+        root.setAlwaysActive(enemyLayer);
+
+        spawnPoint = new Vector2();
+        moveTarget = new Vector2();
+        view = new Rectangle();
+        startBossBattle = new Runnable() {
+            @Override
+            public void run() {
+                boss.startBattle(getView());
+            }
+        };
+
+        reset();
+    }
+
+    /**
+     * Times collisions, spawn walls and enemy thinking, and each actor type's act, while the profiler is enabled.
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+        collisionsPhase = profiler.registerPhase("collisions");
+        spawnWallsPhase = profiler.registerPhase("spawn walls");
+        aiPhase = profiler.registerPhase("ai");
+        root.setProfiler(profiler);
+    }
+
+    /**
+     * Remembers the actor and camera positions before a step, for drawing between steps.
+     */
+    public void savePositions() {
+        root.savePositions();
+        enemyEntities.savePositions();
+        previousCameraX = cameraX;
+    }
+
+    /**
+     * Advances the world on its own, for running without a stage.
+     */
+    public void step(float delta) {
+        root.act(delta);
+        update();
+    }
+
+    /**
+     * Applies the game rules after the actors acted. A stage holding {@link #getRoot()} acts the actors
+     * itself and only calls this.
+     */
+    public void update() {
+        tick++;
+        freeRemovedActors();
+
+        begin(aiPhase);
+        aiScheduler.run();
+        end(aiPhase);
+        if(adaptiveAi && tick % AI_TUNE_INTERVAL == 0) tuneAiQuota();
+
+        begin(collisionsPhase);
+        handleCollisions();
+        end(collisionsPhase);
+
+        if(boss != null && boss.isDefeated() && !chain.isHinting()) {
+            chain.hintPullChainForever();
+        }
+
+        begin(spawnWallsPhase);
+        float viewLeft = cameraX - (WIDTH / 2f);
+        if(isStageClear()) {
+            // do nothing
+        }
+        else if(chain.getPosition().x - viewLeft <= CHAIN_OFFSCREEN_X && !chain.isAttached()) {
+            startGameOver();
+        }
+        else if(triggerSpawnWall(player.getX())) {
+            spawnEnemies(wallIndex);
+
+            wallsTriggered.set(wallIndex);
+        }
+        else if(spawnWallActive()) {
+            if(allOnscreenEnemiesDefeated()) {
+                wallsDestroyed.set(wallIndex);
+                wallIndex++;
+            }
+        }
+        else if(player.getX() - viewLeft > WIDTH * SCROLL_VIEW_PERCENT_TRIGGER) {
+            float shiftX = (player.getX() - viewLeft) - (WIDTH * SCROLL_VIEW_PERCENT_TRIGGER);
+            cameraX += shiftX;
+            player.getMoveTarget().x += shiftX;
+            if(!moon.isFalling()) moon.moveBy(shiftX, 0.0f);
+        }
+        end(spawnWallsPhase);
+
+        root.setView(cameraX - (WIDTH / 2f), 0f, WIDTH, HEIGHT, CULLING_MARGIN);
+        enemyLayer.setView(getView());
+    }
+
+    /**
+     * @param alpha how far actors and entities are drawn between the previous and the current step
+     */
+    public void setAlpha(float alpha) {
+        root.setAlpha(alpha);
+        enemyLayer.setAlpha(alpha);
+    }
+
+    /*
+     * Adopts the scheduler's suggestion once it is a quarter off, so the journal only logs real changes.
+     */
+    private void tuneAiQuota() {
+        int quota = aiScheduler.getQuota();
+        int suggested = aiScheduler.getSuggestedQuota();
+        if(Math.abs(suggested - quota) > quota / 4) setAiQuota(suggested);
+    }
+
+    private void begin(int phase) {
+        if(profiler != null) profiler.begin(phase);
+    }
+
+    private void end(int phase) {
+        if(profiler != null) profiler.end(phase);
+    }
+
+    private void startGameOver() {
+        gameOverStarted = true;
+        player.die();
+    }
+
+    public void handleCollisions() {
+        Array<Actor> touching = collisionGrid.query(player.getCollisionArea());
+        for(int i = 0; i < touching.size; ++i) {
+            Actor entity = touching.get(i);
+            if(entity instanceof Enemy) {
+                if(player.getCollisionArea().overlaps(((Enemy) entity).getCollisionArea())) {
+                    if(chain.isAttached()) chain.detachTail();
+                    player.takeDamage();
+                }
+            }
+            else if(entity instanceof Boss) {
+                if(player.getCollisionArea().overlaps(((Boss) entity).getCollisionArea())) {
+                    if(chain.isAttached()) chain.detachTail();
+                    player.takeDamage();
+                }
+            }
+            else if(entity instanceof MoonChain && !((MoonChain) entity).isAttached() && !player.isTakingDamage()) {
+                if (player.getCollisionArea().overlaps(((MoonChain) entity).getCollisionArea())) {
+                    chain.attachTail(player);
+                }
+            }
+        }
+
+        boolean attackHit = false;
+        Array<Actor> attacked = collisionGrid.query(player.getAttackArea());
+        for(int i = 0; i < attacked.size; ++i) {
+            Actor entity = attacked.get(i);
+            if(entity instanceof Enemy) {
+                Enemy enemy = (Enemy) entity;
+                if(enemy.getCollisionArea().overlaps(player.getAttackArea())) {
+                    enemy.takeDamage(player.getAttackArea().x < enemy.getX() + enemy.getOriginX() ? 1 : -1);
+                    attackHit = true;
+                }
+            }
+            else if(entity instanceof Boss) {
+                Boss boss = (Boss) entity;
+                if(boss.getCollisionArea().overlaps(player.getAttackArea())) {
+                    boss.takeDamage(player.getAttackArea().x < boss.getX() + boss.getOriginX() ? 1 : -1);
+                    attackHit = true;
+                }
+            }
+        }
+
+        if(entityEnemies) {
+            if(enemyEntities.overlaps(player.getCollisionArea())) {
+                if(chain.isAttached()) chain.detachTail();
+                player.takeDamage();
+            }
+            if(enemyEntities.attack(player.getAttackArea())) attackHit = true;
+        }
+
+        if(attackHit) player.clearAttackArea();
+    }
+
+    public boolean triggerSpawnWall(float x) {
+        return wallIndex < level.getWallCount() &&
+                level.findWall(x) >= wallIndex &&
+                !(wallsTriggered.get(wallIndex) || wallsDestroyed.get(wallIndex));
+    }
+
+    public boolean spawnWallActive() {
+        return wallIndex < level.getWallCount() &&
+                wallsTriggered.get(wallIndex) &&
+                !wallsDestroyed.get(wallIndex);
+    }
+
+    /*
+     * Enemies are spread down the height of the view and enter on the side the level asks for.
+     */
+    public void spawnEnemies(int wall) {
+        float viewLeft = cameraX - (WIDTH / 2f);
+        float offsetY = 100;
+        int spawnCount = level.getSpawnEnd(wall) - level.getSpawnStart(wall);
+        for(int spawn = level.getSpawnStart(wall); spawn < level.getSpawnEnd(wall); ++spawn) {
+            int enemyId = level.getSpawnEnemyId(spawn);
+            if(enemyId == ENEMY_ID) {
+                spawnPoint.y = HEIGHT - (offsetY + (HEIGHT / spawnCount));
+                switch (level.getSpawnLocation(spawn)) {
+                    case FRONT:
+                        spawnPoint.x = viewLeft + WIDTH * 0.8f;
+                        break;
+                    case BACK:
+                        spawnPoint.x = viewLeft + WIDTH * 0.15f;
+                        break;
+                }
+                offsetY += (HEIGHT / spawnCount);
+
+                float slotOffsetY = (random.nextFloat() - 0.5f) * SLOT_SPREAD;
+                if(entityEnemies) {
+                    enemyEntities.spawn(spawnPoint.x, spawnPoint.y + (EnemyEntities.FRAME_HEIGHT / 2), slotOffsetY);
+                    continue;
+                }
+
+                Enemy newEnemy = enemyPool.obtain();
+                newEnemy.setPosition(spawnPoint.x, spawnPoint.y + (newEnemy.getHeight() / 2));
+                newEnemy.setColor(1.0f, 1.0f, 1.0f, 0.0f);
+                newEnemy.addAction(Actions.fadeIn(0.5f));
+                newEnemy.getBrain().setTarget(player, slotOffsetY);
+                aiScheduler.add(newEnemy.getBrain());
+                addActor(newEnemy);
+            }
+            else if(enemyId == BOSS_ID) {
+                boss = bossPool.obtain();
+                spawnPoint.y = HEIGHT / 2;
+                switch (level.getSpawnLocation(spawn)) {
+                    case FRONT:
+                        spawnPoint.x = viewLeft + WIDTH * 0.7f;
+                        break;
+                    case BACK:
+                        spawnPoint.x = viewLeft + WIDTH * 0.15f;
+                        break;
+                }
+
+                boss.setPosition(spawnPoint.x + (WIDTH * 0.5f), spawnPoint.y - (boss.getHeight() / 2));
+                boss.addAction(
+                        Actions.sequence(
+                                Actions.moveTo(spawnPoint.x, spawnPoint.y - (boss.getHeight() / 2), 3f, Interpolation.fade),
+                                Actions.run(startBossBattle)));
+                addActor(boss);
+                player.enableMoonThrow();
+                chain.hintPullChain();
+            }
+        }
+    }
+
+    public boolean allOnscreenEnemiesDefeated() {
+        if(enemyEntities.size() > 0) return false;
+        SnapshotArray<Actor> children = root.getChildren();
+        for(int i = 0; i < children.size; ++i) {
+            Actor entity = children.get(i);
+            if(entity instanceof Enemy) return false;
+            if(entity instanceof Boss) return false;
+        }
+        return true;
+    }
+
+    /*
+     * For debugging only: removes all enemy actors from the world.
+     */
+    public void clearAllEnemies() {
+        if(journal != null) journal.record(tick, InputJournal.CLEAR_ENEMIES);
+        enemyEntities.clear();
+        SnapshotArray<Actor> children = root.getChildren();
+        Actor[] actors = children.begin();
+        for(int i = 0, n = children.size; i < n; i++) {
+            Actor entity = actors[i];
+            if(entity instanceof Enemy) {
+                entity.clearActions();
+                entity.remove();
+            }
+        }
+        children.end();
+    }
+
+    /*
+     * Hands enemies that left the world back to their pool so the next spawn wall can reuse them.
+     */
+    public void freeRemovedActors() {
+        collisionGrid.refresh(removedActors);
+        for(int i = 0; i < removedActors.size; ++i) {
+            freeActor(removedActors.get(i));
+        }
+        removedActors.clear();
+    }
+
+    private void freeActor(Actor actor) {
+        root.forget(actor);
+        if(actor instanceof Enemy) {
+            aiScheduler.remove(((Enemy) actor).getBrain());
+            enemyPool.free((Enemy) actor);
+        }
+        else if(actor instanceof Boss) {
+            bossPool.free((Boss) actor);
+        }
+    }
+
+    public void addActor(Actor actor) {
+        root.addActor(actor);
+        if(actor instanceof Player || actor instanceof Enemy || actor instanceof Boss || actor instanceof MoonChain) {
+            collisionGrid.insert(actor);
+        }
+    }
+
+    /**
+     * @return the deepest collidable actor at the given world point, the enemy layer if the point is on an
+     * entity enemy, or null
+     */
+    public Actor hit(float x, float y, boolean touchable) {
+        Actor target = collisionGrid.hit(x, y, touchable);
+        if(target == null && entityEnemies) target = enemyLayer.hit(x, y, touchable);
+        return target;
+    }
+
+    /**
+     * Logs every command from now on, or stops logging when null.
+     */
+    public void setJournal(InputJournal journal) {
+        this.journal = journal;
+    }
+
+    public InputJournal getJournal() {
+        return journal;
+    }
+
+    public void moveTo(float x, float y) {
+        if(journal != null) journal.record(tick, InputJournal.MOVE_TO, x, y);
+        player.moveTo(moveTarget.set(x, y));
+    }
+
+    public void stopPlayer() {
+        if(journal != null) journal.record(tick, InputJournal.STOP);
+        if(player.isWalking()) player.stop();
+    }
+
+    /**
+     * Sets the keyboard velocity of the player, starting a walk when asked to.
+     */
+    public void setPlayerVelocity(float velocityX, float velocityY, boolean walk) {
+        if(journal != null) journal.record(tick, walk ? InputJournal.WALK : InputJournal.VELOCITY, velocityX, velocityY);
+        player.velocity.set(velocityX, velocityY);
+        if(walk) player.startWalkState();
+    }
+
+    public void attack(int count) {
+        if(journal != null) journal.record(tick, InputJournal.ATTACK, count);
+        player.performAttack(count);
+    }
+
+    /**
+     * Turns the player towards the given x.
+     */
+    public void faceTowards(float x) {
+        if(journal != null) journal.record(tick, InputJournal.FACE, x);
+        player.setFlipX((player.getX() + player.getOriginX()) - x > 0);
+    }
+
+    /**
+     * For debugging only: brings the moon down right away once the player may throw it.
+     */
+    public void startMoonFall() {
+        if(journal != null) journal.record(tick, InputJournal.FALL_MOON);
+        if(player.isMoonThrowEnabled() && !moon.isFalling()) moon.startFalling();
+    }
+
+    /**
+     * Switches regular enemies between actors and entities from the next reset on.
+     */
+    public void setEntityEnemies(boolean entityEnemies) {
+        if(journal != null) journal.record(tick, InputJournal.ENTITY_ENEMIES, entityEnemies ? 1 : 0);
+        entityEnemiesRequested = entityEnemies;
+    }
+
+    public boolean isEntityEnemies() {
+        return entityEnemies;
+    }
+
+    public EnemyEntities getEnemyEntities() {
+        return enemyEntities;
+    }
+
+    /**
+     * Sets how many enemy brains think per step.
+     */
+    public void setAiQuota(int quota) {
+        if(journal != null) journal.record(tick, InputJournal.AI_QUOTA, quota);
+        aiScheduler.setQuota(quota);
+    }
+
+    /**
+     * Lets the world retune the AI quota to the scheduler's time budget as it goes. The quota then depends
+     * on the machine, so every change is logged to the journal, and replays leave this off to follow it.
+     */
+    public void setAdaptiveAi(boolean adaptiveAi) {
+        this.adaptiveAi = adaptiveAi;
+        aiScheduler.setMeasuring(adaptiveAi);
+    }
+
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    /**
+     * Throws the moon harder the faster the chain is flung down; ignored until the player may throw it.
+     */
+    public void pullChain(float velocityY) {
+        if(journal != null) journal.record(tick, InputJournal.PULL_CHAIN, velocityY);
+        if(!player.isMoonThrowEnabled() || velocityY >= 0 || !chain.isAttached()) return;
+
+        int multiplier = (boss != null && boss.isDefeated()) ? 10 : 2;
+        moon.addDistance(velocityY * multiplier);
+        chain.animatePull();
+    }
+
+    /**
+     * Brings the moon into the world and starts its fall.
+     */
+    public void dropMoon() {
+        if(journal != null) journal.record(tick, InputJournal.DROP_MOON);
+        addActor(moon);
+        moon.startFalling();
+    }
+
+    /**
+     * Puts the level back to its start and re-seeds {@link #getRandom()}, so a reset world replays the same way.
+     */
+    public void reset() {
+        if(journal != null) journal.record(tick, InputJournal.RESET);
+        freeRemovedActors();
+        SnapshotArray<Actor> children = root.getChildren();
+        for(int i = 0; i < children.size; ++i) {
+            freeActor(children.get(i));
+        }
+        root.clearChildren();
+        collisionGrid.clear();
+        addActor(chain);
+        addActor(player);
+
+        enemyEntities.clear();
+        aiScheduler.clear();
+        entityEnemies = entityEnemiesRequested;
+        if(entityEnemies) addActor(enemyLayer);
+
+        boss = null;
+        gameOverStarted = false;
+        random.setSeed(seed);
+
+        player.setPosition((WIDTH / 8), (HEIGHT / 2));
+        player.reset();
+        moon.setPosition((WIDTH / 2) - (moon.getWidth() / 2), HEIGHT);
+        moon.reset();
+        chain.reset();
+        chain.attachTail(player);
+
+        cameraX = WIDTH / 2;
+        root.setView(0f, 0f, WIDTH, HEIGHT, CULLING_MARGIN);
+        savePositions();
+
+        wallsTriggered.clear();
+        wallsDestroyed.clear();
+        wallIndex = 0;
+    }
+
+    /**
+     * @return the visible part of the world, one screen wide and centred on the camera
+     */
+    public Rectangle getView() {
+        return view.set(cameraX - (WIDTH / 2f), 0f, WIDTH, HEIGHT);
+    }
+
+    public CullingGroup getRoot() {
+        return root;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the source for any gameplay randomness, seeded by the world so runs can be replayed
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public MoonChain getChain() {
+        return chain;
+    }
+
+    public Moon getMoon() {
+        return moon;
+    }
+
+    /**
+     * @return the boss of the current level once it spawned, otherwise null
+     */
+    public Boss getBoss() {
+        return boss;
+    }
+
+    public ActorPool<Enemy> getEnemyPool() {
+        return enemyPool;
+    }
+
+    /**
+     * @return number of steps the world took since it was built; resets don't rewind it
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWallIndex() {
+        return wallIndex;
+    }
+
+    /**
+     * @return the x the camera is centred on
+     */
+    public float getCameraX() {
+        return cameraX;
+    }
+
+    /**
+     * @return the camera x between the previous and the current step
+     */
+    public float getCameraX(float alpha) {
+        return previousCameraX + (cameraX - previousCameraX) * alpha;
+    }
+
+    public boolean isGameOverStarted() {
+        return gameOverStarted;
+    }
+
+    public boolean isGameOver() {
+        return player.getParent() == null;
+    }
+
+    public boolean isStageClear() {
+        return moon.getDistance() <= 0;
+    }
+}
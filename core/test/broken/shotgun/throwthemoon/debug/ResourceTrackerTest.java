@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Broken Shotgun
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package broken.shotgun.throwthemoon.debug;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checkpoints the way {@link broken.shotgun.throwthemoon.stages.GameStage#resetLevel()} does, with a
+ * stage that builds its resources once and a level reset that may leave one behind every time.
+ */
+public class ResourceTrackerTest {
+    private static final String RESET_LEVEL = "resetLevel";
+    private static final String ORIGIN = "GameStage";
+
+    private static HeadlessApplication application;
+
+    private AssetManager manager;
+    private ResourceTracker resources;
+
+    /** stands in for a native resource a reset creates */
+    private static class LevelResource {
+    }
+
+    @BeforeClass
+    public static void startApplication() {
+        application = new HeadlessApplication(new ApplicationAdapter() {
+        });
+    }
+
+    @AfterClass
+    public static void stopApplication() {
+        application.exit();
+    }
+
+    @Before
+    public void createStage() {
+        manager = new AssetManager();
+        resources = new ResourceTracker(manager);
+        resources.track(new Object(), ORIGIN);
+    }
+
+    @After
+    public void disposeStage() {
+        manager.dispose();
+    }
+
+    @Test
+    public void cleanResetsDoNotGrow() {
+        assertEquals(0, resetLevel(false).size);
+        assertEquals(0, resetLevel(false).size);
+        assertEquals(0, resources.getGrowth().size);
+    }
+
+    @Test
+    public void leakingResetGrowsAtSecondCheckpoint() {
+        assertEquals(0, resetLevel(true).size);
+
+        Array<String> grown = resetLevel(true);
+        assertEquals(1, grown.size);
+        assertEquals(RESET_LEVEL + ": LevelResource 0 -> 1", grown.first());
+        assertEquals(1, resources.getCount(LevelResource.class));
+        assertEquals(1, resources.getCount(LevelResource.class, ORIGIN));
+        assertEquals(1, resources.getCount(Object.class));
+        assertEquals(1, resources.getGrowth().size);
+    }
+
+    @Test
+    public void assetsNotLoadedYetHoldNoTextureBytes() {
+        Array<AssetDescriptor<?>> held = new Array<AssetDescriptor<?>>();
+        held.add(new AssetDescriptor<Texture>("queued.png", Texture.class));
+        manager.load(held.first());
+
+        assertEquals(0, resources.getTextureBytes(held));
+    }
+
+    /*
+     * Checkpoints on entry like GameStage.resetLevel, then rebuilds the level, leaving one resource behind
+     * when leaking.
+     */
+    private Array<String> resetLevel(boolean leak) {
+        Array<String> grown = resources.checkpoint(RESET_LEVEL);
+        if(leak) resources.track(new LevelResource(), ORIGIN);
+        return grown;
+    }
+}
@@ -0,0 +1,110 @@
+package broken.shotgun.throwthemoon.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.File;
+
+import broken.shotgun.throwthemoon.assets.FontCache;
+
+/**
+ * Build time tool that rasterises TrueType fonts with FreeType into the glyph atlas and AngelCode
+ * {@code .fnt} descriptor the game loads through {@link FontCache}. Only pixmaps are touched, so no GL
+ * context is needed.
+ * Usage: FontBaker &lt;assets dir&gt; &lt;font path&gt;:&lt;size&gt;... bakes each with {@link FontCache#DEFAULT_CHARS}
+ */
+public class FontBaker {
+	private static final int PAGE_SIZE = 512;
+	private static final int GLYPH_SPACING = 2;
+
+	public static void main (String[] args) {
+		GdxNativesLoader.load();
+		FileHandle assetsDir = new FileHandle(new File(args[0]));
+		FileHandle cacheDir = assetsDir.child(FontCache.CACHE_DIRECTORY);
+		cacheDir.mkdirs();
+
+		for (int i = 1; i < args.length; i++) {
+			int separator = args[i].lastIndexOf(':');
+			String fontPath = args[i].substring(0, separator);
+			int size = Integer.parseInt(args[i].substring(separator + 1));
+			String characters = FontCache.DEFAULT_CHARS;
+			String name = FontCache.key(fontPath, size, characters);
+			FileHandle fntFile = cacheDir.child(name + ".fnt");
+			bake(assetsDir.child(fontPath), size, characters, fntFile, name);
+			System.out.println("Baked " + fontPath + " at " + size + "px -> " + fntFile.path());
+		}
+	}
+
+	private static void bake (FileHandle fontFile, int size, String characters, FileHandle fntFile, String name) {
+		PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, GLYPH_SPACING, false);
+		FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+		FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+		parameter.size = size;
+		parameter.characters = characters;
+		parameter.packer = packer;
+		BitmapFontData data = generator.generateData(parameter);
+		generator.dispose();
+
+		write(data, packer.getPages(), fntFile, name, size);
+		packer.dispose();
+	}
+
+	private static void write (BitmapFontData data, Array<PixmapPacker.Page> pages, FileHandle fntFile, String name, int size) {
+		Array<Glyph> glyphs = new Array<Glyph>();
+		for (Glyph[] page : data.glyphs) {
+			if (page == null) continue;
+			for (Glyph glyph : page) {
+				if (glyph != null) glyphs.add(glyph);
+			}
+		}
+
+		StringBuilder fnt = new StringBuilder();
+		fnt.append("info face=\"").append(name).append("\" size=").append(size)
+			.append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=")
+			.append(GLYPH_SPACING).append(',').append(GLYPH_SPACING).append('\n');
+		fnt.append("common lineHeight=").append(Math.round(data.lineHeight))
+			.append(" base=").append(Math.round(data.ascent + data.capHeight))
+			.append(" scaleW=").append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE)
+			.append(" pages=").append(pages.size).append(" packed=0\n");
+		for (int i = 0; i < pages.size; i++) {
+			String pageName = name + "_" + i + ".png";
+			PixmapIO.writePNG(fntFile.sibling(pageName), pages.get(i).getPixmap());
+			fnt.append("page id=").append(i).append(" file=\"").append(pageName).append("\"\n");
+		}
+
+		fnt.append("chars count=").append(glyphs.size).append('\n');
+		for (int i = 0; i < glyphs.size; i++) {
+			Glyph glyph = glyphs.get(i);
+			// the descriptor measures yoffset down from the line's top to the glyph's top
+			fnt.append("char id=").append(glyph.id).append(" x=").append(glyph.srcX).append(" y=").append(glyph.srcY)
+				.append(" width=").append(glyph.width).append(" height=").append(glyph.height)
+				.append(" xoffset=").append(glyph.xoffset).append(" yoffset=").append(-(glyph.yoffset + glyph.height))
+				.append(" xadvance=").append(glyph.xadvance).append(" page=").append(glyph.page).append(" chnl=0\n");
+		}
+
+		StringBuilder kernings = new StringBuilder();
+		int kerningCount = 0;
+		for (int i = 0; i < glyphs.size; i++) {
+			Glyph first = glyphs.get(i);
+			for (int j = 0; j < glyphs.size; j++) {
+				Glyph second = glyphs.get(j);
+				int amount = first.getKerning((char) second.id);
+				if (amount == 0) continue;
+				kernings.append("kerning first=").append(first.id).append(" second=").append(second.id)
+					.append(" amount=").append(amount).append('\n');
+				kerningCount++;
+			}
+		}
+		fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+
+		fntFile.writeString(fnt.toString(), false, "UTF-8");
+	}
+}
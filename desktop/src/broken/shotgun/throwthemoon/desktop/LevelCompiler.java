@@ -0,0 +1,96 @@
+package broken.shotgun.throwthemoon.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import broken.shotgun.throwthemoon.models.Level;
+import broken.shotgun.throwthemoon.models.SpawnLocation;
+
+/**
+ * Build time tool that compiles json level sources into the binary layout read by {@link Level}.
+ * Usage: LevelCompiler &lt;source dir&gt; &lt;output dir&gt;
+ */
+public class LevelCompiler {
+	public static void main (String[] args) throws IOException {
+		FileHandle sourceDir = new FileHandle(new File(args[0]));
+		FileHandle outputDir = new FileHandle(new File(args[1]));
+		outputDir.mkdirs();
+
+		for (FileHandle source : sourceDir.list(".json")) {
+			FileHandle output = outputDir.child(source.nameWithoutExtension() + ".lvl");
+			output.writeBytes(compile(new JsonReader().parse(source)), false);
+			System.out.println("Compiled " + source.name() + " -> " + output.path());
+		}
+	}
+
+	public static byte[] compile (JsonValue level) throws IOException {
+		List<JsonValue> walls = new ArrayList<JsonValue>();
+		for (JsonValue wall = level.get("walls").child; wall != null; wall = wall.next) {
+			walls.add(wall);
+		}
+		Collections.sort(walls, new Comparator<JsonValue>() {
+			@Override
+			public int compare (JsonValue a, JsonValue b) {
+				return a.getInt("x") - b.getInt("x");
+			}
+		});
+
+		int spawnCount = 0;
+		for (JsonValue wall : walls) {
+			spawnCount += wall.get("spawns").size;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(Level.MAGIC);
+		out.writeShort(Level.VERSION);
+		out.writeShort(level.getInt("chapter"));
+		out.writeInt(walls.size());
+		out.writeInt(spawnCount);
+
+		for (JsonValue wall : walls) {
+			out.writeInt(wall.getInt("x"));
+		}
+
+		int spawnStart = 0;
+		for (JsonValue wall : walls) {
+			out.writeInt(spawnStart);
+			spawnStart += wall.get("spawns").size;
+		}
+		out.writeInt(spawnStart);
+
+		for (JsonValue wall : walls) {
+			for (JsonValue spawn = wall.get("spawns").child; spawn != null; spawn = spawn.next) {
+				out.writeShort(spawn.getInt("enemyId"));
+			}
+		}
+
+		for (JsonValue wall : walls) {
+			for (JsonValue spawn = wall.get("spawns").child; spawn != null; spawn = spawn.next) {
+				out.writeByte(parseLocation(spawn.getString("location")).ordinal());
+			}
+		}
+
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static SpawnLocation parseLocation (String location) {
+		try {
+			return SpawnLocation.valueOf(location);
+		} catch (IllegalArgumentException e) {
+			throw new GdxRuntimeException("Unknown spawn location " + location, e);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package broken.shotgun.throwthemoon.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+import broken.shotgun.throwthemoon.debug.FrameProfiler;
+import broken.shotgun.throwthemoon.models.Level;
+import broken.shotgun.throwthemoon.replay.InputJournal;
+import broken.shotgun.throwthemoon.replay.ReplayDriver;
+import broken.shotgun.throwthemoon.world.GameWorld;
+
+/**
+ * Replays a recorded input journal headless under the frame profiler and prints the step time
+ * percentiles per phase, optionally writing every step to a csv for closer inspection.
+ * Usage: ReplayRunner &lt;journal&gt; [assets dir] [csv output]
+ */
+public class ReplayRunner {
+	public static void main (String[] args) {
+		InputJournal journal = InputJournal.load(new FileHandle(new File(args[0])));
+		File assetsDir = new File(args.length > 1 ? args[1] : ".");
+		Level level = Level.load(new FileHandle(new File(assetsDir, journal.getLevelName())));
+
+		GameWorld world = new GameWorld(level, journal.getSeed(), AnimationLibrary.headless(), SoundPlayer.SILENT);
+		FrameProfiler profiler = new FrameProfiler();
+		world.setProfiler(profiler);
+		profiler.setEnabled(true);
+
+		ReplayDriver driver = new ReplayDriver(journal, world);
+		long start = System.nanoTime();
+		while (!driver.isFinished()) {
+			profiler.begin(FrameProfiler.FRAME);
+			driver.step();
+			profiler.end(FrameProfiler.FRAME);
+			profiler.endFrame();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println("Replayed " + journal.getEventCount() + " events over " + world.getTick() + " steps in " + (elapsed / 1000000) + " ms");
+		System.out.println("Final state: wall " + world.getWallIndex() + "/" + level.getWallCount() + ", player x " + world.getPlayer().getX()
+			+ " y " + world.getPlayer().getY() + ", moon distance " + world.getMoon().getDistance());
+		for (int i = 0; i < profiler.getPhaseCount(); i++) {
+			FrameProfiler.Histogram phase = profiler.getPhase(i);
+			if (phase.getCount() == 0) continue;
+			System.out.println(phase.name + ": p50 " + (phase.getPercentile(0.5f) / 1000f) + " us, p99 " + (phase.getPercentile(0.99f) / 1000f)
+				+ " us, max " + (phase.getMax() / 1000f) + " us");
+		}
+
+		if (args.length > 2) {
+			profiler.exportCsv(new FileHandle(new File(args[2])));
+		}
+	}
+}
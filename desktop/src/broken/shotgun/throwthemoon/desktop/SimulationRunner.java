@@ -0,0 +1,66 @@
+package broken.shotgun.throwthemoon.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+
+import broken.shotgun.throwthemoon.actors.Player;
+import broken.shotgun.throwthemoon.assets.AnimationLibrary;
+import broken.shotgun.throwthemoon.assets.SoundPlayer;
+import broken.shotgun.throwthemoon.models.Level;
+import broken.shotgun.throwthemoon.world.FixedTimestep;
+import broken.shotgun.throwthemoon.world.GameWorld;
+
+/**
+ * Plays a level headless with a simple bot that walks right, attacks and pulls the chain once the boss
+ * is down, then prints how fast the world ticked and where it ended up. Runs with the same level, seed
+ * and tick count always print the same final state, so the output can be diffed between builds.
+ * Usage: SimulationRunner &lt;level file&gt; [seed] [ticks]
+ */
+public class SimulationRunner {
+	private static final float STEP = FixedTimestep.STEP;
+	private static final int ATTACK_INTERVAL = 20;
+	private static final int PULL_INTERVAL = 60;
+	private static final float PULL_VELOCITY = -2000f;
+
+	public static void main (String[] args) {
+		Level level = Level.load(new FileHandle(new File(args[0])));
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+		int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+		GameWorld world = new GameWorld(level, seed, AnimationLibrary.headless(), SoundPlayer.SILENT);
+
+		long start = System.nanoTime();
+		int tick = 0;
+		int attacks = 0;
+		while (tick < ticks && !world.isStageClear() && !world.isGameOver()) {
+			drive(world, tick, attacks);
+			if (tick % ATTACK_INTERVAL == 0) attacks++;
+			world.step(STEP);
+			tick++;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		Player player = world.getPlayer();
+		String outcome = world.isStageClear() ? "stage clear" : world.isGameOver() ? "game over" : "running";
+		System.out.println("Seed " + seed + ": " + outcome + " after " + tick + " ticks (" + (tick * STEP) + " s of play)");
+		System.out.println("Final state: wall " + world.getWallIndex() + "/" + level.getWallCount() + ", player x " + player.getX()
+			+ " y " + player.getY() + ", moon distance " + world.getMoon().getDistance());
+		System.out.println("Ticks per second: " + (long)(tick / (elapsed / 1e9)));
+	}
+
+	private static void drive (GameWorld world, int tick, int attacks) {
+		Player player = world.getPlayer();
+		if (world.getBoss() != null && world.getBoss().isDefeated()) {
+			player.velocity.set(0, 0);
+			if (tick % PULL_INTERVAL == 0) world.pullChain(PULL_VELOCITY);
+			return;
+		}
+
+		if (player.velocity.x == 0) {
+			player.velocity.x = Player.KEYBOARD_SPEED;
+			player.startWalkState();
+		}
+		if (tick % ATTACK_INTERVAL == 0) player.performAttack(attacks);
+	}
+}